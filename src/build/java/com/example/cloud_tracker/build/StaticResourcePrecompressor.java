@@ -0,0 +1,88 @@
+package com.example.cloud_tracker.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Build step, run by Maven after the classes are compiled: writes a maximally compressed {@code
+ * .gz} next to every compressible static and webjar resource on the class path, so the resource
+ * chain can serve it as-is to clients that accept gzip instead of compressing on every request.
+ *
+ * <p>Usage: {@code StaticResourcePrecompressor <output directory>}, normally target/classes.
+ * Webjar variants land under the same META-INF/resources path as the jar entry they belong to.
+ */
+public final class StaticResourcePrecompressor {
+
+  static final List<String> ROOTS = List.of("static/", "META-INF/resources/webjars/");
+  static final List<String> EXTENSIONS =
+      List.of("html", "css", "js", "svg", "json", "txt");
+  // Below this the gzip header and a round trip for the variant are not worth it.
+  private static final int MIN_SIZE = 1024;
+
+  private StaticResourcePrecompressor() {}
+
+  public static void main(String[] args) throws IOException {
+    Path output = Path.of(args.length > 0 ? args[0] : "target/classes").toAbsolutePath();
+    int written = precompress(new PathMatchingResourcePatternResolver(), output);
+    System.out.printf("Precompressed %d static resources into %s%n", written, output);
+  }
+
+  static int precompress(PathMatchingResourcePatternResolver resolver, Path output)
+      throws IOException {
+    int written = 0;
+    for (String root : ROOTS) {
+      for (String extension : EXTENSIONS) {
+        for (Resource resource : resolver.getResources("classpath*:" + root + "**/*." + extension)) {
+          String path = classpathPath(resource, root, output);
+          if (path == null || !resource.isReadable()) continue;
+          if (precompress(resource, output.resolve(path + ".gz"))) written++;
+        }
+      }
+    }
+    return written;
+  }
+
+  private static boolean precompress(Resource resource, Path target) throws IOException {
+    byte[] original;
+    try (InputStream in = resource.getInputStream()) {
+      original = in.readAllBytes();
+    }
+    if (original.length < MIN_SIZE) return false;
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream gzip = new BestGzipOutputStream(compressed)) {
+      gzip.write(original);
+    }
+    // Not worth a variant unless it saves at least a tenth.
+    if (compressed.size() > original.length * 9L / 10) return false;
+    Files.createDirectories(target.getParent());
+    Files.write(target, compressed.toByteArray());
+    return true;
+  }
+
+  // The resource's path relative to the class path root, e.g. static/index.html.
+  private static String classpathPath(Resource resource, String root, Path output)
+      throws IOException {
+    String url = resource.getURL().toString();
+    int inJar = url.indexOf("!/" + root);
+    if (inJar >= 0) return url.substring(inJar + 2);
+    if (!resource.isFile()) return null;
+    Path file = resource.getFile().toPath().toAbsolutePath();
+    return file.startsWith(output) ? output.relativize(file).toString().replace('\\', '/') : null;
+  }
+
+  private static final class BestGzipOutputStream extends GZIPOutputStream {
+    BestGzipOutputStream(OutputStream out) throws IOException {
+      super(out);
+      def.setLevel(Deflater.BEST_COMPRESSION);
+    }
+  }
+}
@@ -1,9 +1,16 @@
 package com.example.cloud_tracker;
 
+import com.example.cloud_tracker.configuration.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class CloudTrackerApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,201 @@
+package com.example.cloud_tracker.codec;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar CBOR encoding of a cost series, for clients that would rather not parse the same three
+ * keys and a full date string for every row of {@code /role/cost}.
+ *
+ * <p>The document is a map with five entries:
+ *
+ * <ul>
+ *   <li>{@code "v"}: the format version, 1.
+ *   <li>{@code "services"}: every distinct service name, in order of first appearance; null
+ *       stands for the rows of a total over all services.
+ *   <li>{@code "day"}: per row, the day (days since 1970-01-01) minus the previous row's day; the
+ *       first row's is relative to day 0. Rows of one day cost a byte each.
+ *   <li>{@code "service"}: per row, the index of its service in {@code "services"}.
+ *   <li>{@code "cost"}: every row's cost as little-endian float64s in one byte string, tagged as
+ *       such (RFC 8746, tag 86). A null cost is stored as NaN.
+ * </ul>
+ *
+ * Dates must be ISO dates (yyyy-MM-dd), which is what Cost Explorer returns.
+ */
+public final class CostSeriesCodec {
+
+  public static final String MEDIA_TYPE = "application/vnd.cloud-tracker.cost-series+cbor";
+  static final int VERSION = 1;
+  // RFC 8746 typed array: IEEE 754 binary64, little endian.
+  private static final int FLOAT64_LE_TAG = 86;
+  private static final CBORFactory FACTORY = new CBORFactory();
+
+  private CostSeriesCodec() {}
+
+  public static byte[] encode(List<ServiceCostDTO> costs) {
+    // About ten bytes a row plus the service names.
+    ByteArrayOutputStream out = new ByteArrayOutputStream(costs.size() * 10 + 256);
+    try {
+      encode(costs, out);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+
+  public static void encode(List<ServiceCostDTO> costs, OutputStream out) throws IOException {
+    int rows = costs.size();
+    Map<String, Integer> serviceIndexes = new HashMap<>();
+    List<String> services = new ArrayList<>();
+    int[] dayDeltas = new int[rows];
+    int[] serviceColumn = new int[rows];
+    ByteBuffer costColumn = ByteBuffer.allocate(rows * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    String date = null;
+    int day = 0;
+    int previousDay = 0;
+    for (int i = 0; i < rows; i++) {
+      ServiceCostDTO cost = costs.get(i);
+      // Rows come grouped by day, so the date only needs parsing when it changes. date is only
+      // null before the first row; a row without one fails in epochDay.
+      if (date == null || !date.equals(cost.getDate())) {
+        date = cost.getDate();
+        day = epochDay(date);
+      }
+      dayDeltas[i] = day - previousDay;
+      previousDay = day;
+      serviceColumn[i] =
+          serviceIndexes.computeIfAbsent(
+              cost.getService(),
+              service -> {
+                services.add(service);
+                return services.size() - 1;
+              });
+      costColumn.putDouble(cost.getCost() == null ? Double.NaN : cost.getCost());
+    }
+
+    try (CBORGenerator generator = FACTORY.createGenerator(out)) {
+      generator.writeStartObject(5);
+      generator.writeNumberField("v", VERSION);
+      generator.writeFieldName("services");
+      generator.writeStartArray(services, services.size());
+      for (String service : services) generator.writeString(service);
+      generator.writeEndArray();
+      generator.writeFieldName("day");
+      generator.writeArray(dayDeltas, 0, rows);
+      generator.writeFieldName("service");
+      generator.writeArray(serviceColumn, 0, rows);
+      generator.writeFieldName("cost");
+      generator.writeTag(FLOAT64_LE_TAG);
+      generator.writeBinary(costColumn.array());
+      generator.writeEndObject();
+    }
+  }
+
+  public static List<ServiceCostDTO> decode(byte[] bytes) {
+    try {
+      return decode(new ByteArrayInputStream(bytes));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /** The rows {@link #encode} was given, with NaN costs read back as null. */
+  public static List<ServiceCostDTO> decode(InputStream in) throws IOException {
+    List<String> services = new ArrayList<>();
+    int[] dayDeltas = null;
+    int[] serviceColumn = null;
+    byte[] costColumn = null;
+    try (JsonParser parser = FACTORY.createParser(in)) {
+      expect(parser.nextToken(), JsonToken.START_OBJECT);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "v" -> {
+            if (parser.getIntValue() != VERSION) {
+              throw new IOException("Unsupported cost series version " + parser.getIntValue());
+            }
+          }
+          case "services" -> {
+            expect(parser.currentToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              // Null for rows summed over every service.
+              services.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText());
+            }
+          }
+          case "day" -> dayDeltas = readInts(parser);
+          case "service" -> serviceColumn = readInts(parser);
+          case "cost" -> costColumn = parser.getBinaryValue();
+          default -> parser.skipChildren();
+        }
+      }
+    }
+    if (dayDeltas == null || serviceColumn == null || costColumn == null) {
+      throw new IOException("Incomplete cost series");
+    }
+    int rows = dayDeltas.length;
+    if (serviceColumn.length != rows || costColumn.length != rows * Double.BYTES) {
+      throw new IOException("Cost series columns differ in length");
+    }
+
+    List<ServiceCostDTO> costs = new ArrayList<>(rows);
+    ByteBuffer costBuffer = ByteBuffer.wrap(costColumn).order(ByteOrder.LITTLE_ENDIAN);
+    int day = 0;
+    String date = null;
+    for (int i = 0; i < rows; i++) {
+      if (dayDeltas[i] != 0 || date == null) {
+        day += dayDeltas[i];
+        date = LocalDate.ofEpochDay(day).toString();
+      }
+      if (serviceColumn[i] < 0 || serviceColumn[i] >= services.size()) {
+        throw new IOException("Unknown service index " + serviceColumn[i]);
+      }
+      double cost = costBuffer.getDouble();
+      costs.add(
+          new ServiceCostDTO(date, services.get(serviceColumn[i]), Double.isNaN(cost) ? null : cost));
+    }
+    return costs;
+  }
+
+  private static int epochDay(String date) {
+    if (date == null) throw new IllegalArgumentException("Cost row without a date");
+    try {
+      return Math.toIntExact(LocalDate.parse(date).toEpochDay());
+    } catch (DateTimeParseException ex) {
+      throw new IllegalArgumentException("Not an ISO date: " + date, ex);
+    }
+  }
+
+  private static int[] readInts(JsonParser parser) throws IOException {
+    expect(parser.currentToken(), JsonToken.START_ARRAY);
+    int[] values = new int[16];
+    int size = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (size == values.length) values = Arrays.copyOf(values, size * 2);
+      values[size++] = parser.getIntValue();
+    }
+    return Arrays.copyOf(values, size);
+  }
+
+  private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+    if (actual != expected) throw new IOException("Expected " + expected + " but got " + actual);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.cloud_tracker.codec;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Reads and writes {@code List<ServiceCostDTO>} bodies as {@link CostSeriesCodec} documents, for
+ * requests that ask for {@value CostSeriesCodec#MEDIA_TYPE}. Any other list, and any request that
+ * does not name the type, is left to the JSON converter.
+ */
+public class CostSeriesHttpMessageConverter
+    extends AbstractGenericHttpMessageConverter<List<ServiceCostDTO>> {
+
+  public CostSeriesHttpMessageConverter() {
+    super(MediaType.parseMediaType(CostSeriesCodec.MEDIA_TYPE));
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return List.class.isAssignableFrom(clazz);
+  }
+
+  // Without the generic type a List could hold anything.
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  // Offered for any list; the generic checks below decide per body.
+  @Override
+  public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+    return supports(clazz) ? getSupportedMediaTypes() : List.of();
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return isCostList(type) && canRead(mediaType);
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    return type != null && isCostList(type) && canWrite(mediaType);
+  }
+
+  private static boolean isCostList(Type type) {
+    ResolvableType list = ResolvableType.forType(type);
+    return list.getRawClass() != null
+        && List.class.isAssignableFrom(list.getRawClass())
+        && list.asCollection().resolveGeneric(0) == ServiceCostDTO.class;
+  }
+
+  @Override
+  public List<ServiceCostDTO> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+      throws IOException, HttpMessageNotReadableException {
+    return readInternal(null, inputMessage);
+  }
+
+  @Override
+  protected List<ServiceCostDTO> readInternal(
+      Class<? extends List<ServiceCostDTO>> clazz, HttpInputMessage inputMessage)
+      throws IOException, HttpMessageNotReadableException {
+    try {
+      return CostSeriesCodec.decode(inputMessage.getBody());
+    } catch (IOException ex) {
+      throw new HttpMessageNotReadableException(
+          "Invalid cost series: " + ex.getMessage(), ex, inputMessage);
+    }
+  }
+
+  @Override
+  protected void writeInternal(
+      List<ServiceCostDTO> costs, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    try {
+      CostSeriesCodec.encode(costs, outputMessage.getBody());
+    } catch (IllegalArgumentException ex) {
+      throw new HttpMessageNotWritableException("Cannot encode cost series: " + ex.getMessage(), ex);
+    }
+  }
+}
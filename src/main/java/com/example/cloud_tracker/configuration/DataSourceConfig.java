@@ -0,0 +1,188 @@
+package com.example.cloud_tracker.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+/**
+ * Replaces Boot's single pool with one per {@link DataSourceRoute}, both on spring.datasource.*
+ * and spring.datasource.hikari.*, sized by {@link DataSourcePoolProperties}. The DataSource
+ * everything else uses routes each connection request to the pool of the calling thread's route.
+ * Read-only transactions labelled for it are routed to the read replicas, if any (see {@link
+ * ReplicaProperties}).
+ *
+ * <p>Both pools report to Micrometer as hikaricp.connections.* tagged pool=oltp or pool=ingest:
+ * active, idle, pending, timeouts, and acquire and usage timers; the replicas' pools as
+ * pool=replica-0, replica-1 and so on.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource oltpDataSource(
+      DataSourceProperties properties,
+      DataSourcePoolProperties pools,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return pool(properties, "oltp", pools.getOltp(), meterRegistry);
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource ingestDataSource(
+      DataSourceProperties properties,
+      DataSourcePoolProperties pools,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return pool(properties, "ingest", pools.getIngest(), meterRegistry);
+  }
+
+  @Bean
+  public ReplicaDataSource replicaDataSource(
+      DataSourceProperties properties,
+      DataSourcePoolProperties pools,
+      ReplicaProperties replicaProperties,
+      @Qualifier("oltpDataSource") HikariDataSource oltp,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+    for (ReplicaProperties.Instance instance : replicaProperties.getInstances()) {
+      String name = "replica-" + replicas.size();
+      HikariDataSource replica = pool(properties, name, pools.getReplica(), meterRegistry);
+      replica.setJdbcUrl(instance.getUrl());
+      if (instance.getUsername() != null) replica.setUsername(instance.getUsername());
+      if (instance.getPassword() != null) replica.setPassword(instance.getPassword());
+      replica.setDataSourceProperties(oltp.getDataSourceProperties());
+      // Anything that tries to write through a replica fails rather than diverging from the
+      // primary.
+      replica.setReadOnly(true);
+      replicas.add(new ReplicaDataSource.Replica(name, replica));
+    }
+    return new ReplicaDataSource(replicas, oltp, replicaProperties.getMaxLag());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("oltpDataSource") DataSource oltp,
+      @Qualifier("ingestDataSource") DataSource ingest,
+      @Qualifier("replicaDataSource") DataSource replica) {
+    RoutingDataSource routing = new RoutingDataSource();
+    routing.setTargetDataSources(
+        Map.of(
+            DataSourceRoute.OLTP, oltp,
+            DataSourceRoute.INGEST, ingest,
+            DataSourceRoute.REPLICA, replica));
+    routing.setDefaultTargetDataSource(oltp);
+    return routing;
+  }
+
+  // Replaces Boot's JpaTransactionManager, which backs off when one is defined.
+  @Bean
+  public PlatformTransactionManager transactionManager(
+      ObjectProvider<TransactionManagerCustomizers> customizers) {
+    ReplicaRoutingTransactionManager transactionManager = new ReplicaRoutingTransactionManager();
+    customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+    return transactionManager;
+  }
+
+  private static HikariDataSource pool(
+      DataSourceProperties properties,
+      String name,
+      DataSourcePoolProperties.Pool pool,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName(name);
+    dataSource.setMaximumPoolSize(pool.getConcurrency());
+    dataSource.setMinimumIdle(pool.isFixedSize() ? pool.getConcurrency() : 0);
+    dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+    dataSource.setLeakDetectionThreshold(pool.getLeakDetectionThreshold().toMillis());
+    // Set here rather than left to Boot's binder, which gives up if the pool has already started.
+    meterRegistry.ifAvailable(
+        registry ->
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    return dataSource;
+  }
+
+  /**
+   * Routes each new transaction labelled {@link DataSourceRoute#REPLICA_LABEL} and read-only to
+   * {@link DataSourceRoute#REPLICA}, and every other new one to {@link DataSourceRoute#OLTP}, for
+   * as long as the transaction lasts, unless the thread is on the ingest route, which keeps its own
+   * pool for reads too. Transactions that join an existing one run on its connection.
+   *
+   * <p>Replica reads are opt-in because they may miss recent writes: read-only alone would also
+   * send every Spring Data finder there, sign-in and cache refills included.
+   *
+   * <p>The route has to be set here rather than around the caller: Hibernate takes the
+   * connection as the transaction begins, before Spring marks it read-only.
+   */
+  static class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    // One per transaction begun on this thread, innermost first; suspended ones stay below.
+    private static final ThreadLocal<Deque<DataSourceRoute.Scope>> SCOPES =
+        ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+      Deque<DataSourceRoute.Scope> scopes = SCOPES.get();
+      scopes.push(route(definition).use());
+      try {
+        super.doBegin(transaction, definition);
+      } catch (RuntimeException | Error ex) {
+        // Not cleaned up after completion, since it never began.
+        close(scopes);
+        throw ex;
+      }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+      try {
+        super.doCleanupAfterCompletion(transaction);
+      } finally {
+        close(SCOPES.get());
+      }
+    }
+
+    private static DataSourceRoute route(TransactionDefinition definition) {
+      DataSourceRoute current = DataSourceRoute.current();
+      if (current == DataSourceRoute.INGEST) return current;
+      boolean replica =
+          definition.isReadOnly()
+              && definition instanceof TransactionAttribute attribute
+              && attribute.getLabels().contains(DataSourceRoute.REPLICA_LABEL);
+      return replica ? DataSourceRoute.REPLICA : DataSourceRoute.OLTP;
+    }
+
+    private static void close(Deque<DataSourceRoute.Scope> scopes) {
+      if (!scopes.isEmpty()) scopes.pop().close();
+      if (scopes.isEmpty()) SCOPES.remove();
+    }
+  }
+
+  static class RoutingDataSource extends AbstractRoutingDataSource {
+    @Override
+    protected Object determineCurrentLookupKey() {
+      return DataSourceRoute.current();
+    }
+  }
+}
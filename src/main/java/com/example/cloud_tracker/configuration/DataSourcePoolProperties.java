@@ -0,0 +1,40 @@
+package com.example.cloud_tracker.configuration;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The connection pools behind the application's DataSource (see {@link DataSourceConfig}).
+ * Each is sized from how many callers are expected to use it at once. A caller holds at most one
+ * connection at a time, so that number is the pool size.
+ */
+@Data
+@ConfigurationProperties(prefix = "db.pools")
+public class DataSourcePoolProperties {
+
+  /** Short request-time work: sign in, users, roles, blogs, token revocation. */
+  private Pool oltp = new Pool(10, true, Duration.ofSeconds(5), Duration.ofSeconds(20));
+
+  /** Bulk writes (CSV imports), kept off the OLTP pool so an import cannot starve requests. */
+  private Pool ingest = new Pool(2, false, Duration.ofSeconds(30), Duration.ofMinutes(5));
+
+  /** Read-only transactions, per read replica (see {@link ReplicaProperties}). */
+  private Pool replica = new Pool(10, true, Duration.ofSeconds(5), Duration.ofSeconds(20));
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Pool {
+    // Callers expected to use the pool at once; the pool's maximum size.
+    private int concurrency;
+    // Keep that many connections open even when idle, rather than closing idle ones.
+    private boolean fixedSize;
+    // How long a caller waits for a connection before failing.
+    private Duration connectionTimeout;
+    // A connection held longer than this is logged with the stack that took it (0 = off).
+    private Duration leakDetectionThreshold;
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.cloud_tracker.configuration;
+
+/**
+ * Which pool the current thread's connections come from. {@link #OLTP} unless a caller opens a
+ * scope for another route around its work:
+ *
+ * <pre>
+ * try (DataSourceRoute.Scope ignored = DataSourceRoute.INGEST.use()) {
+ *   ...
+ * }
+ * </pre>
+ *
+ * A transaction keeps the connection it started with, so the scope has to be open before it
+ * begins. Read-only transactions labelled {@link #REPLICA_LABEL} run on {@link #REPLICA}:
+ *
+ * <pre>
+ * &#64;Transactional(readOnly = true, label = DataSourceRoute.REPLICA_LABEL)
+ * </pre>
+ *
+ * See {@link DataSourceConfig.ReplicaRoutingTransactionManager}.
+ */
+public enum DataSourceRoute {
+  OLTP,
+  INGEST,
+  /** A read replica within the allowed lag, or the OLTP pool if there is none. */
+  REPLICA;
+
+  /**
+   * Opts a read-only transaction into {@link #REPLICA}. Only for reads that can be a little behind
+   * the latest writes, such as dashboards, since a replica may lag by up to db.replica.max-lag.
+   */
+  public static final String REPLICA_LABEL = "replica";
+
+  private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+  public static DataSourceRoute current() {
+    DataSourceRoute route = CURRENT.get();
+    return route == null ? OLTP : route;
+  }
+
+  /** Routes this thread here until the scope is closed, then back to where it was. */
+  public Scope use() {
+    DataSourceRoute previous = CURRENT.get();
+    CURRENT.set(this);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
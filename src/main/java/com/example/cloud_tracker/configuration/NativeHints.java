@@ -0,0 +1,165 @@
+package com.example.cloud_tracker.configuration;
+
+import com.example.cloud_tracker.dto.BlogDTO;
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.dto.CostQueryDTO;
+import com.example.cloud_tracker.dto.Ec2DTO;
+import com.example.cloud_tracker.dto.Ec2ToRI;
+import com.example.cloud_tracker.dto.PasswordUpdateDTO;
+import com.example.cloud_tracker.dto.RIDTO;
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.dto.TokenValidationDTO;
+import com.example.cloud_tracker.dto.UserDTO;
+import com.example.cloud_tracker.dto.UserProfileDTO;
+import com.example.cloud_tracker.exception.ErrorResponse;
+import com.example.cloud_tracker.metrics.JpaFlushInterceptor;
+import com.example.cloud_tracker.model.AWSService;
+import com.example.cloud_tracker.model.BlackListedTokens;
+import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.model.IAMRole;
+import com.example.cloud_tracker.model.JwtResponse;
+import com.example.cloud_tracker.model.MonthlyCost;
+import com.example.cloud_tracker.model.ProfileImage;
+import com.example.cloud_tracker.model.User;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * What a native image cannot discover on its own: classes that are only reached reflectively or
+ * by name, and resources read from the classpath at runtime. Spring AOT covers the beans,
+ * repositories and controllers; the AWS SDK v2 and commons-csv need nothing extra.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+  // Hibernate reads and writes entity fields directly and instantiates them through the no-arg
+  // constructor; the Lombok accessors are what Jackson sees when an entity is serialized.
+  private static final List<Class<?>> ENTITIES =
+      List.of(
+          User.class,
+          IAMRole.class,
+          MonthlyCost.class,
+          AWSService.class,
+          Blog.class,
+          BlackListedTokens.class,
+          ProfileImage.class);
+
+  // Request and response bodies, bound by Jackson through their Lombok accessors.
+  private static final List<Class<?>> BODIES =
+      List.of(
+          BlogDTO.class,
+          BlogSummaryDTO.class,
+          CostQueryDTO.class,
+          Ec2DTO.class,
+          Ec2ToRI.class,
+          PasswordUpdateDTO.class,
+          RIDTO.class,
+          ServiceCostDTO.class,
+          TokenValidationDTO.class,
+          UserDTO.class,
+          UserProfileDTO.class,
+          JwtResponse.class,
+          ErrorResponse.class);
+
+  // jjwt-api finds its implementation, and the Jackson (de)serializer, by class name.
+  private static final List<String> JJWT_TYPES =
+      List.of(
+          "io.jsonwebtoken.impl.DefaultJwtBuilder",
+          "io.jsonwebtoken.impl.DefaultJwtParser",
+          "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+          "io.jsonwebtoken.impl.DefaultClaims",
+          "io.jsonwebtoken.impl.DefaultHeader",
+          "io.jsonwebtoken.impl.DefaultJwsHeader",
+          "io.jsonwebtoken.impl.crypto.MacProvider",
+          "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+          "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+          "io.jsonwebtoken.jackson.io.JacksonSerializer",
+          "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+  // auth0 decodes tokens with its own ObjectMapper, through these (de)serializers and holders.
+  private static final List<String> AUTH0_TYPES =
+      List.of(
+          "com.auth0.jwt.impl.HeaderDeserializer",
+          "com.auth0.jwt.impl.HeaderSerializer",
+          "com.auth0.jwt.impl.PayloadDeserializer",
+          "com.auth0.jwt.impl.PayloadSerializer",
+          "com.auth0.jwt.impl.ClaimsSerializer",
+          "com.auth0.jwt.impl.BasicHeader",
+          "com.auth0.jwt.impl.PayloadImpl");
+
+  // The v1 SDK binds its bundled endpoint and client configuration JSON onto these with Jackson.
+  private static final List<String> AWS_V1_TYPES =
+      List.of(
+          "com.amazonaws.partitions.model.Partitions",
+          "com.amazonaws.partitions.model.Partition",
+          "com.amazonaws.partitions.model.Region",
+          "com.amazonaws.partitions.model.Service",
+          "com.amazonaws.partitions.model.Endpoint",
+          "com.amazonaws.partitions.model.CredentialScope",
+          "com.amazonaws.internal.config.InternalConfigJsonHelper",
+          "com.amazonaws.internal.config.SignerConfigJsonHelper",
+          "com.amazonaws.internal.config.HttpClientConfigJsonHelper",
+          "com.amazonaws.internal.config.HostRegexToRegionMappingJsonHelper",
+          "com.amazonaws.internal.config.JsonIndex");
+
+  private static final List<String> AWS_V1_RESOURCES =
+      List.of(
+          "com/amazonaws/partitions/endpoints.json",
+          "com/amazonaws/internal/config/awssdk_config_default.json",
+          "com/amazonaws/sdk/versionInfo.properties");
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (Class<?> entity : ENTITIES) {
+      hints
+          .reflection()
+          .registerType(
+              entity,
+              MemberCategory.DECLARED_FIELDS,
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+    BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+    for (Class<?> body : BODIES) bindings.registerReflectionHints(hints.reflection(), body);
+
+    // Hibernate instantiates the session interceptor from its class name in the properties.
+    hints
+        .reflection()
+        .registerType(JpaFlushInterceptor.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+    registerByName(hints, JJWT_TYPES);
+    registerByName(hints, AUTH0_TYPES);
+    registerByName(hints, AWS_V1_TYPES);
+    hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    AWS_V1_RESOURCES.forEach(hints.resources()::registerPattern);
+
+    // The v1 SDK wraps its Apache HttpClient connection manager and requests in JDK proxies to
+    // collect client-side metrics.
+    hints
+        .proxies()
+        .registerJdkProxy(
+            TypeReference.of("org.apache.http.conn.HttpClientConnectionManager"),
+            TypeReference.of("org.apache.http.pool.ConnPoolControl"),
+            TypeReference.of("com.amazonaws.http.conn.Wrapped"));
+    hints
+        .proxies()
+        .registerJdkProxy(
+            TypeReference.of("org.apache.http.conn.ConnectionRequest"),
+            TypeReference.of("com.amazonaws.http.conn.Wrapped"));
+  }
+
+  private static void registerByName(RuntimeHints hints, List<String> types) {
+    for (String type : types) {
+      hints
+          .reflection()
+          .registerType(
+              TypeReference.of(type),
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_DECLARED_METHODS,
+              MemberCategory.DECLARED_FIELDS);
+    }
+  }
+}
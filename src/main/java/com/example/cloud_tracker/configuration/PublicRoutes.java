@@ -0,0 +1,115 @@
+package com.example.cloud_tracker.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * The routes that are reachable without a token. This is the only list: {@code SecurityConfig}
+ * permits exactly these and {@code JwtFilter} skips exactly these.
+ *
+ * <p>A route is either an exact path, or a path ending in {@code /**} which also matches anything
+ * below it. The routes are compiled into a character trie once, so a lookup walks the request
+ * path a single time without allocating.
+ */
+@Component
+public class PublicRoutes implements RequestMatcher {
+
+  static final List<String> ROUTES =
+      List.of(
+          "/",
+          "/error",
+          "/actuator/health/**",
+          "/actuator/prometheus",
+          "/index.html",
+          "/welcome.html",
+          "/signup",
+          "/signin",
+          "/blogs/**",
+          "/webjars/**",
+          "/swagger-ui.html",
+          "/swagger-ui/**",
+          "/swagger-resources/**",
+          "/v2/api-docs/**",
+          "/v3/api-docs/**",
+          "/configuration/ui/**",
+          "/configuration/security/**");
+
+  private final Node root;
+
+  public PublicRoutes() {
+    this(ROUTES);
+  }
+
+  PublicRoutes(List<String> routes) {
+    Node builder = new Node();
+    for (String route : routes) builder.add(route);
+    this.root = builder;
+  }
+
+  @Override
+  public boolean matches(HttpServletRequest request) {
+    return matches(request.getRequestURI());
+  }
+
+  public boolean matches(String path) {
+    Node node = root;
+    int length = path.length();
+    for (int i = 0; i < length; i++) {
+      char c = path.charAt(i);
+      if (node.subtree && c == '/') return true;
+      node = node.child(c);
+      if (node == null) return false;
+    }
+    return node.exact || node.subtree;
+  }
+
+  private static final class Node {
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    // The path ending here is public.
+    private boolean exact;
+    // Anything below the path ending here, i.e. continuing with '/', is public too.
+    private boolean subtree;
+
+    void add(String route) {
+      if (!route.startsWith("/")) {
+        throw new IllegalArgumentException("Route must start with '/': " + route);
+      }
+      boolean isSubtree = route.endsWith("/**");
+      String path = isSubtree ? route.substring(0, route.length() - 3) : route;
+      if (path.contains("*")) {
+        throw new IllegalArgumentException("Only a trailing /** is supported: " + route);
+      }
+      Node node = this;
+      for (int i = 0; i < path.length(); i++) node = node.childOrCreate(path.charAt(i));
+      if (isSubtree) node.subtree = true;
+      else node.exact = true;
+    }
+
+    Node child(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      return index >= 0 ? children[index] : null;
+    }
+
+    private Node childOrCreate(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      if (index >= 0) return children[index];
+      int insertAt = -index - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertAt);
+      System.arraycopy(children, 0, newChildren, 0, insertAt);
+      System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+      System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+      Node node = new Node();
+      newKeys[insertAt] = c;
+      newChildren[insertAt] = node;
+      keys = newKeys;
+      children = newChildren;
+      return node;
+    }
+  }
+}
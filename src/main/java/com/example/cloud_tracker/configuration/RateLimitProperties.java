@@ -0,0 +1,58 @@
+package com.example.cloud_tracker.configuration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Per-route rate limits. The first policy whose paths match the request applies; each policy
+ * gives every user (or, for {@link Key#IP} policies and anonymous requests, every client address)
+ * its own token bucket of {@code capacity} requests, refilled at {@code refillPerSecond}. Both
+ * must be positive; a bucket that never refills would compute an infinite wait.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  // Buckets untouched for this long, and full again, are dropped.
+  private Duration idleEviction = Duration.ofMinutes(10);
+
+  @Valid
+  private List<Policy> policies =
+      new ArrayList<>(
+          List.of(
+              new Policy("auth", List.of("/signin", "/signup"), Key.IP, 10, 0.2),
+              new Policy(
+                  "aws",
+                  List.of("/role/cost", "/role/ec2cost", "/role/forecast", "/role/offerings"),
+                  Key.USER,
+                  10,
+                  0.1),
+              new Policy("default", List.of("/**"), Key.USER, 200, 50)));
+
+  public enum Key {
+    USER,
+    IP
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Policy {
+    private String name;
+    private List<String> paths = new ArrayList<>();
+    private Key key = Key.USER;
+    @Positive private int capacity;
+    @Positive private double refillPerSecond;
+  }
+}
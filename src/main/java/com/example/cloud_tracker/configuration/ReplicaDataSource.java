@@ -0,0 +1,146 @@
+package com.example.cloud_tracker.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * The pool behind {@link DataSourceRoute#REPLICA}: hands out connections from the read replicas in
+ * turn, skipping any whose last measured lag (see {@link ReplicaLagMonitor}) is unknown or above
+ * the limit, and from the primary when none is left. Adding a replica adds read capacity.
+ *
+ * <p>Reports db.replica.lag (seconds, NaN while unknown) per replica and db.replica.fallbacks,
+ * the reads that went to the primary because no replica could take them.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+  private final List<Replica> replicas;
+  private final DataSource primary;
+  private final long maxLagMillis;
+  private final AtomicInteger next = new AtomicInteger();
+  private final LongAdder fallbacks = new LongAdder();
+
+  public ReplicaDataSource(List<Replica> replicas, DataSource primary, Duration maxLag) {
+    this.replicas = List.copyOf(replicas);
+    this.primary = primary;
+    this.maxLagMillis = maxLag.toMillis();
+  }
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  public boolean isUsable(Replica replica) {
+    long lag = replica.getLagMillis();
+    return lag != Replica.UNKNOWN_LAG && lag <= maxLagMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return connect(DataSource::getConnection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return connect(dataSource -> dataSource.getConnection(username, password));
+  }
+
+  private Connection connect(Connector connector) throws SQLException {
+    int count = replicas.size();
+    if (count == 0) return connector.connect(primary);
+    int start = Math.floorMod(next.getAndIncrement(), count);
+    for (int i = 0; i < count; i++) {
+      Replica replica = replicas.get((start + i) % count);
+      if (!isUsable(replica)) continue;
+      try {
+        return connector.connect(replica.getDataSource());
+      } catch (SQLException ex) {
+        // Out of rotation until the monitor reaches it again.
+        replica.setLagMillis(Replica.UNKNOWN_LAG);
+        log.warn("Read replica {} is unreachable: {}", replica.getName(), ex.getMessage());
+      }
+    }
+    fallbacks.increment();
+    return connector.connect(primary);
+  }
+
+  private interface Connector {
+    Connection connect(DataSource dataSource) throws SQLException;
+  }
+
+  @Override
+  public void close() {
+    for (Replica replica : replicas) {
+      if (replica.getDataSource() instanceof Closeable closeable) {
+        try {
+          closeable.close();
+        } catch (IOException ex) {
+          log.warn("Could not close the pool of read replica {}", replica.getName(), ex);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Replica replica : replicas) {
+      Gauge.builder(
+              "db.replica.lag",
+              replica,
+              r -> r.getLagMillis() == Replica.UNKNOWN_LAG ? Double.NaN : r.getLagMillis() / 1000.0)
+          .description("Replication lag of the read replica at its last check")
+          .baseUnit("seconds")
+          .tag("replica", replica.getName())
+          .register(registry);
+    }
+    FunctionCounter.builder("db.replica.fallbacks", fallbacks, LongAdder::sum)
+        .description("Replica reads sent to the primary because no replica could take them")
+        .register(registry);
+  }
+
+  /** One read replica and its pool. */
+  public static class Replica {
+    public static final long UNKNOWN_LAG = -1;
+
+    private final String name;
+    private final DataSource dataSource;
+    // Unknown until the first check, so a replica serves nothing before it is known to be current.
+    private volatile long lagMillis = UNKNOWN_LAG;
+
+    public Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public DataSource getDataSource() {
+      return dataSource;
+    }
+
+    public long getLagMillis() {
+      return lagMillis;
+    }
+
+    public void setLagMillis(long lagMillis) {
+      this.lagMillis = lagMillis;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.cloud_tracker.configuration;
+
+import com.example.cloud_tracker.configuration.ReplicaDataSource.Replica;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures how far each read replica is behind the primary. Every check writes the time into a
+ * one-row heartbeat table on the primary, then reads it back from each replica: the difference
+ * is the replica's lag. The table replicates like any other, so this works against any engine and
+ * needs no privileges on the replicas beyond reading it. Lag is only as accurate as the clocks of
+ * the instances writing the heartbeat agree.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+  static final String CREATE_TABLE =
+      "create table if not exists replica_heartbeat (id int primary key, beat_at bigint not null)";
+
+  private final ReplicaDataSource replicaDataSource;
+  private final JdbcTemplate primary;
+  private volatile boolean tableCreated;
+
+  public ReplicaLagMonitor(
+      ReplicaDataSource replicaDataSource, @Qualifier("oltpDataSource") DataSource primary) {
+    this.replicaDataSource = replicaDataSource;
+    this.primary = new JdbcTemplate(primary);
+  }
+
+  @Scheduled(fixedDelayString = "${db.replica.heartbeat-interval-ms:1000}")
+  public void check() {
+    if (replicaDataSource.getReplicas().isEmpty()) return;
+    beat(System.currentTimeMillis());
+    long now = System.currentTimeMillis();
+    for (Replica replica : replicaDataSource.getReplicas()) {
+      boolean wasUsable = replicaDataSource.isUsable(replica);
+      replica.setLagMillis(lag(replica, now));
+      boolean usable = replicaDataSource.isUsable(replica);
+      if (wasUsable && !usable) {
+        log.warn(
+            "Read replica {} taken out of rotation, lag {} ms",
+            replica.getName(),
+            replica.getLagMillis());
+      } else if (!wasUsable && usable) {
+        log.info(
+            "Read replica {} in rotation, lag {} ms", replica.getName(), replica.getLagMillis());
+      }
+    }
+  }
+
+  private void beat(long now) {
+    try {
+      if (!tableCreated) {
+        primary.execute(CREATE_TABLE);
+        tableCreated = true;
+      }
+      if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+        primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+      }
+    } catch (DataAccessException ex) {
+      // Another instance inserting the row first, or the primary being down; the replicas' lag
+      // grows until a beat gets through.
+      log.debug("Replica heartbeat not written: {}", ex.getMessage());
+    }
+  }
+
+  private static long lag(Replica replica, long now) {
+    try {
+      Long beatAt =
+          new JdbcTemplate(replica.getDataSource())
+              .queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+      return beatAt == null ? Replica.UNKNOWN_LAG : Math.max(0, now - beatAt);
+    } catch (DataAccessException ex) {
+      return Replica.UNKNOWN_LAG;
+    }
+  }
+}
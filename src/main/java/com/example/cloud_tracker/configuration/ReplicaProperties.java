@@ -0,0 +1,35 @@
+package com.example.cloud_tracker.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replicas of the primary database. Read-only transactions are spread over the replicas
+ * whose replication lag is within {@code maxLag}, and go to the primary when there are none (see
+ * {@link ReplicaDataSource}). Each replica gets its own pool, sized by db.pools.replica.
+ */
+@Data
+@ConfigurationProperties(prefix = "db.replica")
+public class ReplicaProperties {
+
+  // None by default: every read goes to the primary.
+  private List<Instance> instances = new ArrayList<>();
+
+  // A replica further behind than this serves no reads until it catches up.
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Instance {
+    private String url;
+    // The primary's credentials when not set.
+    private String username;
+    private String password;
+  }
+}
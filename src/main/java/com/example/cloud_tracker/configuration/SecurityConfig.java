@@ -3,18 +3,28 @@ package com.example.cloud_tracker.configuration;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 import com.example.cloud_tracker.filter.JwtFilter;
+import com.example.cloud_tracker.filter.RateLimitFilter;
+import com.example.cloud_tracker.metrics.FlightRecorderEndpoint;
 import com.example.cloud_tracker.service.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
@@ -38,11 +48,64 @@ public class SecurityConfig {
   private final LogoutHandler logoutHandler;
 
   private final CorsFilter corsFilter;
+  private final RateLimitFilter rateLimitFilter;
+  private final PublicRoutes publicRoutes;
 
-  public SecurityConfig(JwtFilter jwtFilter, LogoutHandler logoutHandler, CorsFilter corsFilter) {
+  public SecurityConfig(
+      JwtFilter jwtFilter,
+      LogoutHandler logoutHandler,
+      CorsFilter corsFilter,
+      RateLimitFilter rateLimitFilter,
+      PublicRoutes publicRoutes) {
     this.jwtFilter = jwtFilter;
     this.logoutHandler = logoutHandler;
     this.corsFilter = corsFilter;
+    this.rateLimitFilter = rateLimitFilter;
+    this.publicRoutes = publicRoutes;
+  }
+
+  // A flight recording holds the JVM's environment and system properties, so the jfr endpoint
+  // is not open to any signed-in user: it takes its own operator credential over HTTP basic,
+  // and turns everyone away while no password is configured.
+  @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public SecurityFilterChain flightRecorderFilterChain(
+      HttpSecurity http,
+      @Value("${jfr.operator.username:operator}") String username,
+      @Value("${jfr.operator.password:}") String password)
+      throws Exception {
+    InMemoryUserDetailsManager operators = new InMemoryUserDetailsManager();
+    if (!password.isBlank()) {
+      operators.createUser(
+          User.withUsername(username)
+              .password(bCryptPasswordEncoder().encode(password))
+              .roles(FLIGHT_RECORDER_ROLE)
+              .build());
+    }
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+    provider.setUserDetailsService(operators);
+    provider.setPasswordEncoder(bCryptPasswordEncoder());
+
+    http.securityMatcher(EndpointRequest.to(FlightRecorderEndpoint.class))
+        .authorizeHttpRequests(authz -> authz.anyRequest().hasRole(FLIGHT_RECORDER_ROLE))
+        // Its own manager, so application users cannot sign in here with their passwords.
+        .authenticationManager(new ProviderManager(provider))
+        .csrf(AbstractHttpConfigurer::disable)
+        .httpBasic(withDefaults())
+        .sessionManagement(
+            session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+    return http.build();
+  }
+
+  static final String FLIGHT_RECORDER_ROLE = "FLIGHT_RECORDER";
+
+  // JwtFilter runs in the chain below. Registered as a plain servlet filter as well, it would
+  // also demand a token from requests the chain above lets in.
+  @Bean
+  public FilterRegistrationBean<JwtFilter> jwtFilterRegistration() {
+    FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(jwtFilter);
+    registration.setEnabled(false);
+    return registration;
   }
 
   @Bean
@@ -52,27 +115,7 @@ public class SecurityConfig {
         .authorizeHttpRequests(
             (authz) ->
                 authz
-                    .requestMatchers(
-                        "/",
-                        "/error",
-                        "/webjars/**",
-                        "/index.html",
-                        "/signup",
-                        "/blogs/blog",
-                        "/blogs",
-                        "/blogs/blog/**",
-                        "/signin",
-                        "/v2/api-docs",
-                        "/v3/api-docs",
-                        "/v3/api-docs/**",
-                        "/swagger-resources",
-                        "/swagger-resources/**",
-                        "/configuration/ui",
-                        "/configuration/security",
-                        "/swagger-ui/**",
-                        "/webjars/**",
-                        "/swagger-ui.html",
-                        "/validate-token")
+                    .requestMatchers(publicRoutes)
                     .permitAll()
                     .anyRequest()
                     .authenticated())
@@ -88,6 +131,7 @@ public class SecurityConfig {
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterAfter(rateLimitFilter, JwtFilter.class)
         .logout(
             (logout) ->
                 logout
@@ -114,8 +158,12 @@ public class SecurityConfig {
     return new UserDetailsServiceImpl();
   }
 
+  // Raising this makes PasswordHashingService rehash weaker stored hashes on the next login.
+  @Value("${auth.password-hashing.bcrypt-strength:10}")
+  private int bcryptStrength;
+
   @Bean
   public BCryptPasswordEncoder bCryptPasswordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(bcryptStrength);
   }
 }
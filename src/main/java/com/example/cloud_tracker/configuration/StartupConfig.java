@@ -0,0 +1,30 @@
+package com.example.cloud_tracker.configuration;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Keeps beans that only a handful of requests need out of the startup path. */
+@Configuration
+public class StartupConfig {
+
+  // Springdoc builds the API description on the first docs request anyway; its beans only need
+  // to exist by then.
+  private static final String LAZY_PACKAGE = "org.springdoc.";
+
+  @Bean
+  static BeanFactoryPostProcessor lazyApiDocs() {
+    return beanFactory -> {
+      for (String name : beanFactory.getBeanDefinitionNames()) {
+        BeanDefinition definition = beanFactory.getBeanDefinition(name);
+        String factoryBean = definition.getFactoryBeanName();
+        String type =
+            factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)
+                ? beanFactory.getBeanDefinition(factoryBean).getBeanClassName()
+                : definition.getBeanClassName();
+        if (type != null && type.startsWith(LAZY_PACKAGE)) definition.setLazyInit(true);
+      }
+    };
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.cloud_tracker.configuration;
+
+import com.example.cloud_tracker.codec.CostSeriesHttpMessageConverter;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  // Appended rather than declared as a bean, which Boot would put first: a client that accepts
+  // anything keeps getting JSON, and only one asking for the cost series type gets it.
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(new CostSeriesHttpMessageConverter());
+  }
+}
@@ -1,14 +1,20 @@
 package com.example.cloud_tracker.controller;
 
 import com.example.cloud_tracker.dto.BlogDTO;
-import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.service.BlogResponseCache;
 import com.example.cloud_tracker.service.BlogService;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 public class BlogController {
@@ -16,30 +22,97 @@ public class BlogController {
   @Autowired
   private BlogService blogService;
 
+  @Value("${blog.cache-control.max-age:60s}")
+  private Duration maxAge;
+
   @PostMapping("/blogs/blog")
   public ResponseEntity<String> saveBlog(@RequestBody @NotNull BlogDTO content) {
     return blogService.saveBlog(content.getHtmlContent(), content.getTitle());
   }
 
+  // The index only lists titles and excerpts; article bodies are loaded one at a time below.
   @GetMapping("/blogs")
-  public List<Blog> getBlogs() {
-    return blogService.getBlogs();
+  public ResponseEntity<byte[]> getBlogs(
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size,
+      WebRequest request) {
+    return cached(blogService.getRenderedBlogSummaries(page, size), request);
+  }
+
+  @GetMapping("/blogs/search")
+  public List<BlogSummaryDTO> searchBlogs(
+      @RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+    return blogService.search(q, limit);
   }
 
   @GetMapping("/blogs/blog/{id}")
-  public ResponseEntity<Blog> getBlogById(@PathVariable int id) {
-    Optional<Blog> optionalContent = blogService.getBlogById(id);
-    return optionalContent.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+  public ResponseEntity<byte[]> getBlogById(@PathVariable int id, WebRequest request) {
+    return cached(blogService.getRenderedBlog(id), request);
   }
 
+  // If-Match takes the ETag of a GET, so an edit of a version that has since changed gets a 409.
   @PutMapping("/blogs/blog/{id}")
-  public ResponseEntity<String> updateBlog(@PathVariable int id, @RequestBody @NotNull BlogDTO content) {
-    return blogService.updateBlog(id, content.getHtmlContent(), content.getTitle());
+  public ResponseEntity<String> updateBlog(
+      @PathVariable int id,
+      @RequestBody @NotNull BlogDTO content,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return blogService.updateBlog(
+        id, content.getHtmlContent(), content.getTitle(), BlogService.expectedVersion(ifMatch));
   }
 
   @DeleteMapping("/blogs/blog/{id}")
   public ResponseEntity<String> deleteBlog(@PathVariable int id) {
     return blogService.deleteBlog(id);
   }
-  
+
+  // Public and the same for everyone, so shared caches may keep it for maxAge. Spring answers an
+  // If-None-Match that still matches the ETag with a bodiless 304 carrying the same headers.
+  private ResponseEntity<byte[]> cached(BlogResponseCache.Rendered rendered, WebRequest request) {
+    if (rendered == null) return ResponseEntity.notFound().build();
+
+    boolean gzip =
+        rendered.gzipped() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    String etag = rendered.etag();
+    // A strong tag names one exact representation, so the gzipped one gets a tag of its own.
+    if (gzip && !etag.startsWith("W/")) etag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+    if (!gzip) return response.body(rendered.json());
+    return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzipped());
+  }
+
+  /**
+   * Whether an Accept-Encoding header allows gzip: listed with a non-zero q-value, or not listed
+   * while "*" is. x-gzip alone does not count, since the response is labelled gzip.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) return false;
+    Boolean wildcard = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      boolean accepted = quality(parts) > 0;
+      if (name.equalsIgnoreCase("gzip")) return accepted;
+      if (name.equals("*")) wildcard = accepted;
+    }
+    return wildcard != null && wildcard;
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String param = parts[i].trim();
+      if (!param.regionMatches(true, 0, "q=", 0, 2)) continue;
+      try {
+        return Double.parseDouble(param.substring(2).trim());
+      } catch (NumberFormatException ex) {
+        // Malformed: treat the coding as unacceptable rather than guess.
+        return 0;
+      }
+    }
+    return 1;
+  }
 }
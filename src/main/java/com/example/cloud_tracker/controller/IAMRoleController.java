@@ -6,11 +6,17 @@ import com.example.cloud_tracker.dto.Ec2ToRI;
 import com.example.cloud_tracker.dto.RIDTO;
 import com.example.cloud_tracker.dto.ServiceCostDTO;
 import com.example.cloud_tracker.model.IAMRole;
-import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.service.CostAggregation;
 import com.example.cloud_tracker.service.EC2InstanceService;
 import com.example.cloud_tracker.service.IAMRoleService;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,12 +26,14 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/role")
 public class IAMRoleController {
 
+  private static final Logger log = LoggerFactory.getLogger(IAMRoleController.class);
   private static final String MOCK_ARN = "arn:aws:iam::123456789012:role/MockRole";
   private final IAMRoleService iamRoleService;
   private final EC2InstanceService ec2InstanceService;
   private final MockCostsService mockCostsService;
 
-  public IAMRoleController(IAMRoleService iamRoleService, EC2InstanceService ec2InstanceService) {
+  public IAMRoleController(
+      @Lazy IAMRoleService iamRoleService, @Lazy EC2InstanceService ec2InstanceService) {
     this.iamRoleService = iamRoleService;
     this.ec2InstanceService = ec2InstanceService;
     this.mockCostsService = new MockCostsService();
@@ -33,14 +41,14 @@ public class IAMRoleController {
 
   @PostMapping()
   public ResponseEntity<IAMRole> addRole(
-      @AuthenticationPrincipal User principal, @RequestParam String arn) {
+      @AuthenticationPrincipal UserPrincipal principal, @RequestParam String arn) {
     IAMRole newIAMRole = iamRoleService.addIAMRole(principal.getId(), arn);
     return ResponseEntity.status(HttpStatus.CREATED).body(newIAMRole);
   }
 
 
   @GetMapping("/all")
-  public ResponseEntity<List<IAMRole>> getRoles(@AuthenticationPrincipal User principal) {
+  public ResponseEntity<List<IAMRole>> getRoles(@AuthenticationPrincipal UserPrincipal principal) {
     List<IAMRole> iamRoles = iamRoleService.getIAMRoles(principal.getId());
     return ResponseEntity.status(HttpStatus.OK).body(iamRoles);
   }
@@ -50,20 +58,34 @@ public class IAMRoleController {
     return ResponseEntity.status(HttpStatus.OK).body(iamRole);
   }
 
+  /**
+   * Daily cost per service over the last six months, optionally only within {@code [from, to]}
+   * and summed by day, week, month or service; see {@link CostAggregation}. Only the days of the
+   * range are fetched from Cost Explorer; days before the six months are not available.
+   */
   @GetMapping("/cost")
-  public ResponseEntity<List<ServiceCostDTO>> getBlendedCost(@RequestParam String arn){
+  public ResponseEntity<List<ServiceCostDTO>> getBlendedCost(
+      @RequestParam String arn,
+      @RequestParam(required = false) String groupBy,
+      @RequestParam(required = false) Integer topN,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    CostAggregation.GroupBy grouping =
+        groupBy == null ? null : CostAggregation.GroupBy.parse(groupBy);
     // Check for predefined ARN
     if (MOCK_ARN.equals(arn)) {
       List<ServiceCostDTO> mockData = mockCostsService.generateRandomMockBlendedCost();
-      return ResponseEntity.status(HttpStatus.OK).body(mockData);
+      return ResponseEntity.status(HttpStatus.OK)
+          .body(CostAggregation.aggregate(mockData, grouping, topN, from, to));
     }
 
     IAMRole iamRole = iamRoleService.getIAMRoleByArn(arn);
     try {
-      List<ServiceCostDTO> blendedCost = iamRoleService.getBlendedCost(iamRole);
-      return ResponseEntity.status(HttpStatus.OK).body(blendedCost);
+      List<ServiceCostDTO> blendedCost = iamRoleService.getBlendedCost(iamRole, from, to);
+      return ResponseEntity.status(HttpStatus.OK)
+          .body(CostAggregation.aggregate(blendedCost, grouping, topN, from, to));
     } catch (AWSSecurityTokenServiceException ex) {
-      ex.printStackTrace();
+      log.warn("Could not assume role {}: {}", arn, ex.getErrorMessage());
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
     }
   }
@@ -74,7 +96,7 @@ public class IAMRoleController {
     try {
       return ResponseEntity.status(HttpStatus.OK).body(iamRoleService.getEC2Data(iamRole));
     } catch (AWSSecurityTokenServiceException ex) {
-      ex.printStackTrace();
+      log.warn("Could not assume role {}: {}", arn, ex.getErrorMessage());
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
 
     }
@@ -86,7 +108,7 @@ public class IAMRoleController {
       double predictedCost = iamRoleService.getForecast(iamRole);
       return ResponseEntity.status(HttpStatus.OK).body(predictedCost);
     } catch (AWSSecurityTokenServiceException ex) {
-      ex.printStackTrace();
+      log.warn("Could not assume role {}: {}", arn, ex.getErrorMessage());
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
     }
   }
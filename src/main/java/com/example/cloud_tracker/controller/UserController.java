@@ -6,19 +6,27 @@ import com.example.cloud_tracker.dto.UserDTO;
 import com.example.cloud_tracker.dto.UserProfileDTO;
 import com.example.cloud_tracker.model.JwtResponse;
 import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.service.ProfileImageService;
 import com.example.cloud_tracker.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 public class UserController {
 
   private final UserService userService;
+  private final ProfileImageService profileImageService;
 
-  public UserController(UserService userService) {
+  public UserController(UserService userService, ProfileImageService profileImageService) {
     this.userService = userService;
+    this.profileImageService = profileImageService;
   }
 
   @PostMapping("/test")
@@ -40,10 +48,28 @@ public class UserController {
     return ResponseEntity.status(HttpStatus.OK).body(jwtResponse);
   }
 
+  // Per-user and behind auth, so only the browser may cache it; the ETag makes repeat loads a 304.
   @GetMapping("/me/profile-picture")
-  public ResponseEntity<String> getCurrentUserProfilePicture() {
-    String profilePicture = userService.getCurrentUserProfilePicture();
-    return ResponseEntity.ok(profilePicture);
+  public ResponseEntity<byte[]> getCurrentUserProfilePicture(
+      @AuthenticationPrincipal UserPrincipal principal,
+      @RequestParam(defaultValue = "full") String size,
+      WebRequest request) {
+    boolean thumbnail = "thumbnail".equals(size);
+    String contentHash = profileImageService.getContentHash(principal.getId());
+    if (contentHash == null) return ResponseEntity.notFound().build();
+
+    String etag = thumbnail ? contentHash + "-thumbnail" : contentHash;
+    if (request.checkNotModified(etag)) return null;
+
+    ProfileImageService.Picture picture = thumbnail
+        ? profileImageService.getThumbnail(principal.getId())
+        : profileImageService.getPicture(principal.getId());
+    if (picture == null) return ResponseEntity.notFound().build();
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .contentType(MediaType.parseMediaType(picture.contentType()))
+        .body(picture.bytes());
   }
 
   @GetMapping("/me/name")
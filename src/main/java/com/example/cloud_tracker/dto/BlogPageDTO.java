@@ -0,0 +1,17 @@
+package com.example.cloud_tracker.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One page of the blog index; the response shape, rather than Spring Data's Page internals. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlogPageDTO {
+  private List<BlogSummaryDTO> content;
+  private int page;
+  private int size;
+  private long total;
+}
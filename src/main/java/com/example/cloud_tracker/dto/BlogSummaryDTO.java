@@ -0,0 +1,16 @@
+package com.example.cloud_tracker.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlogSummaryDTO {
+  private int id;
+  private String title;
+  private Instant createdAt;
+  private String excerpt;
+}
@@ -0,0 +1,8 @@
+package com.example.cloud_tracker.exception;
+
+/** Thrown when too many AWS calls are already in flight; mapped to 503 with a Retry-After. */
+public class AwsCallsSaturatedException extends RuntimeException {
+  public AwsCallsSaturatedException(String message) {
+    super(message);
+  }
+}
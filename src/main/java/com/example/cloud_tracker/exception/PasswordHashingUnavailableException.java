@@ -0,0 +1,8 @@
+package com.example.cloud_tracker.exception;
+
+/** Thrown when the password hashing pool is saturated; mapped to 503 with a Retry-After. */
+public class PasswordHashingUnavailableException extends RuntimeException {
+  public PasswordHashingUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -2,6 +2,8 @@ package com.example.cloud_tracker.exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -38,6 +40,46 @@ public class UserExceptionHandler {
   // or if the data is null
   // the user will get a null pointer exception
 
+  @ExceptionHandler(PasswordHashingUnavailableException.class)
+  @ResponseBody
+  public ResponseEntity<String> handlePasswordHashingUnavailable(
+      PasswordHashingUnavailableException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(ex.getMessage());
+  }
+
+  // example of the password hashing unavailable exception :
+  // if a burst of sign ins fills the password hashing queue
+  // the extra requests are turned away instead of waiting
+  // and the status will be 503 with a Retry-After header
+
+  @ExceptionHandler(AwsCallsSaturatedException.class)
+  @ResponseBody
+  public ResponseEntity<String> handleAwsCallsSaturated(AwsCallsSaturatedException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(ex.getMessage());
+  }
+
+  // example of the aws calls saturated exception :
+  // if every aws call permit stays taken for the permit timeout
+  // the request gives up instead of queueing without bound
+  // and the status will be 503 with a Retry-After header
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  @ResponseBody
+  public ResponseEntity<String> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body("It was changed by another request; reload it and try again");
+  }
+
+  // example of the optimistic locking failure exception :
+  // if two users edit the same blog at once, or one sends an If-Match of an older version
+  // the later update is refused instead of overwriting the other one
+  // and the status will be 409
+
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public Map<String, String> handleInvalidArgument(MethodArgumentNotValidException ex) {
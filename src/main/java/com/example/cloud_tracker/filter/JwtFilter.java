@@ -1,7 +1,16 @@
 package com.example.cloud_tracker.filter;
 
+import com.example.cloud_tracker.configuration.PublicRoutes;
+import com.example.cloud_tracker.metrics.AuthEvent;
+import com.example.cloud_tracker.metrics.AuthMetrics;
+import com.example.cloud_tracker.metrics.AuthMetrics.Outcome;
+import com.example.cloud_tracker.model.VerifiedToken;
+import com.example.cloud_tracker.service.CurrentUserContext;
 import com.example.cloud_tracker.service.JwtService;
+import com.example.cloud_tracker.service.TokenDigest;
+import com.example.cloud_tracker.service.TokenRevocationService;
 import com.example.cloud_tracker.service.UserDetailsServiceImpl;
+import com.example.cloud_tracker.service.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,24 +31,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtFilter extends OncePerRequestFilter {
   @Autowired private JwtService jwtService;
   @Autowired private UserDetailsServiceImpl userDetailsService;
+  @Autowired private VerifiedTokenCache verifiedTokenCache;
+  @Autowired private TokenRevocationService tokenRevocationService;
+  @Autowired private CurrentUserContext currentUserContext;
+  @Autowired private PublicRoutes publicRoutes;
+  @Autowired private AuthMetrics authMetrics;
 
   @Override
   public boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-    String path = request.getRequestURI();
-    return path.startsWith("/webjars")
-        || path.startsWith("/index.html")
-        || path.startsWith("/signup")
-        || path.startsWith("/signin")
-        || path.equals("/")
-        || path.equals("/welcome.html")
-        || path.startsWith("/blogs")
-        || path.startsWith("/swagger-ui.html")
-        || path.startsWith("/swagger-resources")
-        || path.startsWith("/v2/api-docs")
-        || path.startsWith("/v3/api-docs")
-        || path.startsWith("/configuration/ui")
-        || path.startsWith("/configuration/security")
-        || path.startsWith("/swagger-ui");
+    return publicRoutes.matches(request.getRequestURI());
   }
 
   @Override
@@ -48,27 +48,59 @@ public class JwtFilter extends OncePerRequestFilter {
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain)
       throws ServletException, IOException {
+    final AuthEvent auth = authMetrics.start();
     final String authHeader = request.getHeader("Authorization");
     if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+      authMetrics.record(Outcome.REJECTED, auth);
       response.sendError(
           HttpServletResponse.SC_UNAUTHORIZED, "JWT Token does not begin with Bearer String");
       return;
     }
     final String jwt = authHeader.substring(7);
-    final String userEmail = jwtService.extractUserName(jwt);
-    if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-      if (jwtService.validateToken(jwt, userDetails)) {
-        UsernamePasswordAuthenticationToken authToken =
-            new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
-        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(authToken);
-      } else {
+    final String digest = TokenDigest.of(jwt);
+    final UserDetails cachedPrincipal = verifiedTokenCache.get(digest);
+    if (cachedPrincipal != null) {
+      // A request that verified the token before a logout revoked it can cache it after the
+      // logout's invalidate(), so every hit is checked against the revocation index too.
+      if (tokenRevocationService.isRevoked(digest)) {
+        verifiedTokenCache.invalidate(digest);
+        authMetrics.record(Outcome.REJECTED, auth);
         response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token is not valid");
         return;
       }
+      if (SecurityContextHolder.getContext().getAuthentication() == null) {
+        authenticate(request, cachedPrincipal);
+      }
+      authMetrics.record(Outcome.CACHED, auth);
       filterChain.doFilter(request, response);
+      return;
+    }
+    final VerifiedToken token = jwtService.verifyToken(jwt);
+    if (token == null || token.getSubject() == null) {
+      authMetrics.record(Outcome.REJECTED, auth);
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token is not valid");
+      return;
+    }
+    if (SecurityContextHolder.getContext().getAuthentication() == null) {
+      UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.getSubject());
+      if (jwtService.validateToken(token, digest, userDetails)) {
+        authenticate(request, userDetails);
+        verifiedTokenCache.put(digest, userDetails, token.getExpiration());
+      } else {
+        authMetrics.record(Outcome.REJECTED, auth);
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token is not valid");
+        return;
+      }
     }
+    authMetrics.record(Outcome.VERIFIED, auth);
+    filterChain.doFilter(request, response);
+  }
+
+  private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+    UsernamePasswordAuthenticationToken authToken =
+        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    SecurityContextHolder.getContext().setAuthentication(authToken);
+    currentUserContext.setPrincipal(userDetails);
   }
 }
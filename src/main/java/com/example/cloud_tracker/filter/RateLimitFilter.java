@@ -0,0 +1,73 @@
+package com.example.cloud_tracker.filter;
+
+import com.example.cloud_tracker.configuration.RateLimitProperties;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Key;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Policy;
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.service.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/** Runs right after {@link JwtFilter}, so authenticated requests are limited per user. */
+@Setter
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+  @Autowired private RateLimiter rateLimiter;
+  @Autowired private RateLimitProperties rateLimitProperties;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !rateLimitProperties.isEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    Policy policy = rateLimiter.policyFor(request.getRequestURI());
+    if (policy == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    long waitNanos = rateLimiter.tryAcquire(policy, client(policy, request));
+    if (waitNanos > 0) {
+      meterRegistry.counter("rate_limit.rejected", "policy", policy.getName()).increment();
+      long second = TimeUnit.SECONDS.toNanos(1);
+      long retryAfterSeconds = Math.max(1, (waitNanos + second - 1) / second);
+      response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+      response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private static String client(Policy policy, HttpServletRequest request) {
+    if (policy.getKey() == Key.USER) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication != null && authentication.getPrincipal() instanceof UserDetails user) {
+        return user instanceof UserPrincipal principal
+            ? "user:" + principal.getId()
+            : "user:" + user.getUsername();
+      }
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.cloud_tracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Handed out by {@link AuthMetrics#start()} and settled by {@link AuthMetrics#record}. */
+@Name("cloud_tracker.Auth")
+@Label("Bearer Token Authentication")
+@Category({"Cloud Tracker", "HTTP"})
+@StackTrace(false)
+// Cache hits take microseconds; only the slow ones are worth a record.
+@Threshold("1 ms")
+public final class AuthEvent extends Event {
+
+  @Label("Outcome")
+  String outcome;
+
+  // Transient fields are not recorded.
+  transient long startNanos;
+
+  AuthEvent() {}
+}
@@ -0,0 +1,32 @@
+package com.example.cloud_tracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("cloud_tracker.AwsCall")
+@Label("AWS Call")
+@Category({"Cloud Tracker", "AWS"})
+@Description("One AWS API request, including the SDK's own retries")
+@StackTrace(false)
+class AwsCallEvent extends Event {
+
+  @Label("API")
+  String api;
+
+  @Label("Account")
+  String account;
+
+  @Label("Role ARN")
+  String roleArn;
+
+  @Label("Page")
+  @Description("1-based page number for paginated APIs")
+  int page;
+
+  @Label("Error")
+  String error;
+}
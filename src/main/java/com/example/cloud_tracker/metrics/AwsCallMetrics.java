@@ -0,0 +1,70 @@
+package com.example.cloud_tracker.metrics;
+
+import com.example.cloud_tracker.model.IAMRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency and failures of AWS API calls, by API and account. Timers are created once per
+ * combination and looked up by plain string keys afterwards. Each call is also emitted as an
+ * {@link AwsCallEvent} carrying the role and page, for flight recordings.
+ */
+@Component
+public class AwsCallMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer>> timers =
+      new ConcurrentHashMap<>();
+
+  public AwsCallMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> T record(String api, IAMRole role, Supplier<T> call) {
+    return record(api, role, 1, call);
+  }
+
+  public <T> T record(String api, IAMRole role, int page, Supplier<T> call) {
+    String accountTag = role == null || role.getAccountID() == null ? "unknown" : role.getAccountID();
+    AwsCallEvent event = new AwsCallEvent();
+    event.begin();
+    long start = System.nanoTime();
+    String error = null;
+    try {
+      return call.get();
+    } catch (RuntimeException ex) {
+      error = ex.getClass().getSimpleName();
+      meterRegistry
+          .counter("aws.calls.errors", "api", api, "account", accountTag, "exception", error)
+          .increment();
+      throw ex;
+    } finally {
+      timer(api, accountTag).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      event.end();
+      if (event.shouldCommit()) {
+        event.api = api;
+        event.account = accountTag;
+        event.roleArn = role == null ? null : role.getArn();
+        event.page = page;
+        event.error = error;
+        event.commit();
+      }
+    }
+  }
+
+  private Timer timer(String api, String account) {
+    return timers
+        .computeIfAbsent(api, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(account, k ->
+            Timer.builder("aws.calls")
+                .description("AWS API call latency")
+                .tag("api", api)
+                .tag("account", account)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.cloud_tracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Handed out by {@link CsvImportMetrics#start()} and settled by {@link CsvImportMetrics#recordImport}. */
+@Name("cloud_tracker.CsvImport")
+@Label("CSV Import")
+@Category({"Cloud Tracker", "Ingest"})
+@StackTrace(false)
+public final class CsvImportEvent extends Event {
+
+  @Label("File Name")
+  String fileName;
+
+  @Label("File Size")
+  @DataAmount
+  long fileSize;
+
+  @Label("Cost Rows")
+  long rows;
+
+  @Label("Services")
+  int services;
+
+  transient long startNanos;
+
+  CsvImportEvent() {}
+}
@@ -0,0 +1,60 @@
+package com.example.cloud_tracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rows imported from cost CSV uploads, and how long each upload took. Each upload is also
+ * emitted as a {@link CsvImportEvent} for flight recordings.
+ */
+@Component
+public class CsvImportMetrics {
+
+  private final Counter rows;
+  private final Timer duration;
+  private final DistributionSummary throughput;
+
+  public CsvImportMetrics(MeterRegistry meterRegistry) {
+    this.rows =
+        Counter.builder("csv.import.rows")
+            .description("Cost rows imported from CSV uploads")
+            .register(meterRegistry);
+    this.duration =
+        Timer.builder("csv.import.duration")
+            .description("Time to import one CSV upload")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.throughput =
+        DistributionSummary.builder("csv.import.throughput")
+            .description("Rows per second achieved by each CSV upload")
+            .baseUnit("rows/s")
+            .register(meterRegistry);
+  }
+
+  public CsvImportEvent start() {
+    CsvImportEvent event = new CsvImportEvent();
+    event.startNanos = System.nanoTime();
+    event.begin();
+    return event;
+  }
+
+  public void recordImport(
+      CsvImportEvent event, String fileName, long fileSize, long importedRows, int services) {
+    long elapsed = System.nanoTime() - event.startNanos;
+    rows.increment(importedRows);
+    duration.record(elapsed, TimeUnit.NANOSECONDS);
+    if (elapsed > 0) throughput.record(importedRows * 1e9 / elapsed);
+    event.end();
+    if (event.shouldCommit()) {
+      event.fileName = fileName;
+      event.fileSize = fileSize;
+      event.rows = importedRows;
+      event.services = services;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.cloud_tracker.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Controls a flight recording on the management port:
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists the JVM's recordings;
+ *   <li>{@code POST /actuator/jfr/start} starts ours, optionally with {@code settings} ({@code
+ *       default} or {@code profile}) and {@code maxAge};
+ *   <li>{@code POST /actuator/jfr/stop} stops it;
+ *   <li>{@code GET /actuator/jfr/dump} downloads what it has recorded so far.
+ * </ul>
+ *
+ * <p>The recording leaves out the initial environment variable and system property events,
+ * which would carry the database password and other secrets. The dump is of this recording
+ * only: a recording started with {@code -XX:StartFlightRecording} may include those events, and
+ * is left to {@code jcmd}.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+  static final String RECORDING_NAME = "cloud-tracker";
+  private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+  static final List<String> SECRET_EVENTS =
+      List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+  // Guarded by this.
+  private Recording recording;
+
+  @ReadOperation
+  public Map<String, Object> recordings() {
+    List<Map<String, Object>> recordings =
+        FlightRecorder.isAvailable()
+            ? FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(FlightRecorderEndpoint::describe)
+                .toList()
+            : List.of();
+    return Map.of("available", FlightRecorder.isAvailable(), "recordings", recordings);
+  }
+
+  @WriteOperation
+  public synchronized Map<String, Object> control(
+      @Selector String action, @Nullable String settings, @Nullable Duration maxAge) {
+    switch (action) {
+      case "start" -> start(settings == null ? "default" : settings, maxAge);
+      case "stop" -> {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+          throw new InvalidEndpointRequestException("No recording running", "Not running");
+        }
+        recording.stop();
+      }
+      default -> throw new InvalidEndpointRequestException(
+          "Unknown action '" + action + "', expected start or stop", "Unknown action");
+    }
+    return describe(recording);
+  }
+
+  @ReadOperation(produces = "application/octet-stream")
+  public synchronized Resource dump(@Selector String action) throws IOException {
+    if (!"dump".equals(action) || recording == null) return null;
+    RecordingState state = recording.getState();
+    if (state != RecordingState.RUNNING && state != RecordingState.STOPPED) return null;
+    Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+    recording.dump(file);
+    return deleteOnClose(file);
+  }
+
+  private void start(String settings, Duration maxAge) {
+    if (!FlightRecorder.isAvailable()) {
+      throw new InvalidEndpointRequestException("Flight recorder is not available", "Unavailable");
+    }
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings);
+    } catch (IOException | ParseException ex) {
+      throw new InvalidEndpointRequestException(
+          "Unknown settings '" + settings + "'", "Unknown settings");
+    }
+    Map<String, String> eventSettings = new HashMap<>(configuration.getSettings());
+    SECRET_EVENTS.forEach(event -> eventSettings.put(event + "#enabled", "false"));
+    if (recording != null) recording.close();
+    recording = new Recording(eventSettings);
+    recording.setName(RECORDING_NAME);
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge == null ? DEFAULT_MAX_AGE : maxAge);
+    recording.start();
+  }
+
+  private static Map<String, Object> describe(Recording recording) {
+    Map<String, Object> description = new LinkedHashMap<>();
+    description.put("id", recording.getId());
+    description.put("name", recording.getName());
+    description.put("state", recording.getState());
+    description.put("startTime", recording.getStartTime());
+    description.put("maxAge", recording.getMaxAge());
+    description.put("size", recording.getSize());
+    return description;
+  }
+
+  private static Resource deleteOnClose(Path file) {
+    return new FileSystemResource(file) {
+      @Override
+      public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(super.getInputStream()) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              Files.deleteIfExists(file);
+            }
+          }
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.cloud_tracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("cloud_tracker.JpaFlush")
+@Label("JPA Flush")
+@Category({"Cloud Tracker", "JPA"})
+class JpaFlushEvent extends Event {
+
+  @Label("Managed Entities")
+  int entities;
+}
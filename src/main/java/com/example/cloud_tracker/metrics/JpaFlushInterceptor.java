@@ -0,0 +1,41 @@
+package com.example.cloud_tracker.metrics;
+
+import java.util.Iterator;
+import jdk.jfr.EventType;
+import org.hibernate.Interceptor;
+
+/**
+ * Emits a {@link JpaFlushEvent} around every Hibernate flush, so flushes show up next to the
+ * request or import that triggered them. Registered session-factory wide through {@code
+ * hibernate.session_factory.interceptor}, hence stateless apart from the per-thread event.
+ */
+public class JpaFlushInterceptor implements Interceptor {
+
+  private static final EventType FLUSH = EventType.getEventType(JpaFlushEvent.class);
+  private static final ThreadLocal<JpaFlushEvent> CURRENT = new ThreadLocal<>();
+
+  @Override
+  public void preFlush(Iterator<Object> entities) {
+    if (!FLUSH.isEnabled()) return;
+    JpaFlushEvent event = new JpaFlushEvent();
+    event.begin();
+    CURRENT.set(event);
+  }
+
+  @Override
+  public void postFlush(Iterator<Object> entities) {
+    JpaFlushEvent event = CURRENT.get();
+    if (event == null) return;
+    CURRENT.remove();
+    event.end();
+    if (event.shouldCommit()) {
+      int count = 0;
+      while (entities.hasNext()) {
+        entities.next();
+        count++;
+      }
+      event.entities = count;
+      event.commit();
+    }
+  }
+}
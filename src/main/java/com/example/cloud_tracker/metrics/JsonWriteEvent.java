@@ -0,0 +1,17 @@
+package com.example.cloud_tracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("cloud_tracker.JsonWrite")
+@Label("JSON Response Serialization")
+@Category({"Cloud Tracker", "HTTP"})
+@StackTrace(false)
+class JsonWriteEvent extends Event {
+
+  @Label("Type")
+  String type;
+}
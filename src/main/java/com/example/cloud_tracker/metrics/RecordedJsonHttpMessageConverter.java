@@ -0,0 +1,37 @@
+package com.example.cloud_tracker.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Boot's JSON converter, with each response body write emitted as a {@link JsonWriteEvent}.
+ * Declaring it as a bean replaces the auto-configured converter, Boot's ObjectMapper included.
+ */
+@Component
+public class RecordedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+  public RecordedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+    super(objectMapper);
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    JsonWriteEvent event = new JsonWriteEvent();
+    event.begin();
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.type = (type != null ? type : object.getClass()).getTypeName();
+        event.commit();
+      }
+    }
+  }
+}
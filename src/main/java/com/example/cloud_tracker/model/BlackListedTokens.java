@@ -1,22 +1,57 @@
 package com.example.cloud_tracker.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
+import java.time.Instant;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
-public class BlackListedTokens {
+@Table(
+    name = "revoked_tokens",
+    indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+public class BlackListedTokens implements Persistable<String> {
+  // SHA-256 of the token (see TokenDigest), so lookups hit a fixed-width primary key.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
-  private int id;
+  @Column(length = 64, columnDefinition = "char(64)")
+  private String tokenDigest;
 
-  @NotNull private String token;
+  // Rows are pruned once the token would have expired anyway.
+  @NotNull private Instant expiresAt;
+
+  // The id is assigned, so without this Spring Data would merge, selecting the row before every
+  // insert, and the insert could not be batched.
+  @Transient @EqualsAndHashCode.Exclude private boolean persisted;
+
+  public BlackListedTokens(String tokenDigest, Instant expiresAt) {
+    this.tokenDigest = tokenDigest;
+    this.expiresAt = expiresAt;
+  }
+
+  @Override
+  public String getId() {
+    return tokenDigest;
+  }
+
+  @Override
+  public boolean isNew() {
+    return !persisted;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markPersisted() {
+    persisted = true;
+  }
 }
@@ -1,11 +1,14 @@
 package com.example.cloud_tracker.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,10 +19,30 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Table(name = "blogs")
 public class Blog {
+  public static final int EXCERPT_LENGTH = 240;
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private int id;
 
   private String title;
   @Lob private String htmlContent;
+
+  // Plain-text start of the article, kept so listing blogs never has to read htmlContent.
+  @Column(length = EXCERPT_LENGTH + 1)
+  private String excerpt;
+
+  private Instant createdAt;
+
+  // Bumped by every update and served as the blog's ETag; the default fills in rows that predate
+  // the column.
+  @Version
+  @Column(nullable = false, columnDefinition = "bigint default 0")
+  private long version;
+
+  public Blog(int id, String title, String htmlContent) {
+    this.id = id;
+    this.title = title;
+    this.htmlContent = htmlContent;
+  }
 }
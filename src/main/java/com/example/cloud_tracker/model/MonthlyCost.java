@@ -12,11 +12,22 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Table(name = "monthly-cost")
 public class MonthlyCost {
+  // From a sequence rather than an identity column so that inserts can be batched. Ids are
+  // handed out fifty at a time (see hibernate.id.optimizer.pooled.preferred); MySQL has no
+  // sequences, so there it is a one-row table.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_cost_seq")
+  @SequenceGenerator(
+      name = "monthly_cost_seq", sequenceName = "monthly_cost_seq", allocationSize = 50)
   private int id;
 
   private String date;
   private String service;
   private Double cost;
+
+  public MonthlyCost(String date, String service, Double cost) {
+    this.date = date;
+    this.service = service;
+    this.cost = cost;
+  }
 }
@@ -0,0 +1,41 @@
+package com.example.cloud_tracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "profile_images")
+public class ProfileImage {
+  @Id private int userId;
+
+  // SHA-256 of the original image bytes; doubles as the ETag.
+  @NotNull
+  @Column(length = 64, columnDefinition = "char(64)")
+  private String contentHash;
+
+  @NotNull private String contentType;
+
+  // Original image, gzipped when that makes it smaller.
+  @NotNull
+  @Lob
+  @Column(length = 16_777_215)
+  private byte[] data;
+
+  private boolean compressed;
+
+  // PNG scaled down to fit the configured thumbnail size.
+  @NotNull
+  @Lob
+  @Column(length = 16_777_215)
+  private byte[] thumbnail;
+}
@@ -29,7 +29,8 @@ public class User implements UserDetails {
 
   @NotNull private String password;
   private String name;
-  @Lob private String image;
+  // Only carries an uploaded picture to ProfileImageService; pictures live in profile_images.
+  @Transient private String image;
 
   @OneToMany(mappedBy = "userId", cascade = CascadeType.ALL)
   @Nullable
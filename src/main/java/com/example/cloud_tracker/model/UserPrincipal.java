@@ -0,0 +1,48 @@
+package com.example.cloud_tracker.model;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * The authenticated user as seen by the security layer: just the columns authentication needs,
+ * without the profile image or roles of the full {@link User} entity.
+ */
+@Value
+public class UserPrincipal implements UserDetails {
+  int id;
+  String email;
+  String password;
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return List.of();
+  }
+
+  @Override
+  public String getUsername() {
+    return email;
+  }
+
+  @Override
+  public boolean isAccountNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isAccountNonLocked() {
+    return true;
+  }
+
+  @Override
+  public boolean isCredentialsNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+}
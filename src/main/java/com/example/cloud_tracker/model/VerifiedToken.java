@@ -0,0 +1,16 @@
+package com.example.cloud_tracker.model;
+
+import java.util.Date;
+import lombok.Value;
+
+/** A bearer token whose signature has been checked, with the claims the filter needs. */
+@Value
+public class VerifiedToken {
+  String token;
+  String subject;
+  Date expiration;
+
+  public boolean isExpired() {
+    return expiration != null && expiration.before(new Date());
+  }
+}
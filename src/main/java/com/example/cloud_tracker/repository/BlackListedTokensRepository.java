@@ -1,11 +1,21 @@
 package com.example.cloud_tracker.repository;
 
+import java.time.Instant;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.cloud_tracker.model.BlackListedTokens;
 
 @Repository
-public interface BlackListedTokensRepository extends JpaRepository<BlackListedTokens, Integer> {
-  Boolean existsByToken(String token);
+public interface BlackListedTokensRepository extends JpaRepository<BlackListedTokens, String> {
+  List<BlackListedTokens> findByExpiresAtAfter(Instant instant);
+
+  @Modifying
+  @Transactional
+  @Query("delete from BlackListedTokens t where t.expiresAt <= :instant")
+  int deleteExpired(Instant instant);
 }
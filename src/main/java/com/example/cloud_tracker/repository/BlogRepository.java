@@ -1,8 +1,21 @@
 package com.example.cloud_tracker.repository;
 
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
 import com.example.cloud_tracker.model.Blog;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BlogRepository extends JpaRepository<Blog, Integer> {}
+public interface BlogRepository extends JpaRepository<Blog, Integer> {
+
+  @Query(
+      "select new com.example.cloud_tracker.dto.BlogSummaryDTO(b.id, b.title, b.createdAt, b.excerpt)"
+          + " from Blog b")
+  Page<BlogSummaryDTO> findSummaries(Pageable pageable);
+
+  List<Blog> findByExcerptIsNull();
+}
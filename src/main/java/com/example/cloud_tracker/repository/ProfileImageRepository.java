@@ -0,0 +1,16 @@
+package com.example.cloud_tracker.repository;
+
+import com.example.cloud_tracker.model.ProfileImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProfileImageRepository extends JpaRepository<ProfileImage, Integer> {
+
+  @Query("select p.contentHash from ProfileImage p where p.userId = :userId")
+  String findContentHashByUserId(int userId);
+
+  @Query("select p.thumbnail from ProfileImage p where p.userId = :userId")
+  byte[] findThumbnailByUserId(int userId);
+}
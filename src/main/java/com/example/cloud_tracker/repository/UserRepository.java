@@ -1,7 +1,9 @@
 package com.example.cloud_tracker.repository;
 
 import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -9,4 +11,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
   User findByEmail(String email);
 
   User findById(int id);
+
+  @Query(
+      "select new com.example.cloud_tracker.model.UserPrincipal(u.id, u.email, u.password)"
+          + " from User u where u.email = :email")
+  UserPrincipal findPrincipalByEmail(String email);
 }
@@ -1,16 +1,20 @@
 package com.example.cloud_tracker.service;
 
+import com.example.cloud_tracker.configuration.DataSourceRoute;
 import com.example.cloud_tracker.model.AWSService;
 import com.example.cloud_tracker.repository.AWSServiceRepository;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AWSServicesService {
 
   @Autowired private AWSServiceRepository awsServiceRepository;
 
+  // Dashboard totals, which tolerate replica lag.
+  @Transactional(readOnly = true, label = DataSourceRoute.REPLICA_LABEL)
   public List<AWSService> getServices() {
     return awsServiceRepository.findAll();
   }
@@ -27,4 +31,9 @@ public class AWSServicesService {
     awsService.setTotalCost(cost);
     awsServiceRepository.save(awsService);
   }
+
+  /** Saves the services in one transaction, as JDBC batches of hibernate.jdbc.batch_size. */
+  public void addNewAWSServices(List<AWSService> awsServices) {
+    awsServiceRepository.saveAll(awsServices);
+  }
 }
@@ -0,0 +1,62 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.exception.AwsCallsSaturatedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the number of AWS calls in flight. On platform threads the Tomcat pool used to cap it; on
+ * virtual threads nothing else would, and each call holds an SDK client and its connection pool.
+ * A call that cannot get a permit within the timeout fails with {@link
+ * AwsCallsSaturatedException}.
+ */
+@Component
+public class AwsCallLimiter {
+
+  private final Semaphore permits;
+  private final int maxConcurrentCalls;
+  private final long permitTimeoutMs;
+  private final MeterRegistry meterRegistry;
+
+  public AwsCallLimiter(
+      MeterRegistry meterRegistry,
+      @Value("${aws.calls.max-concurrent:64}") int maxConcurrentCalls,
+      @Value("${aws.calls.permit-timeout-ms:10000}") long permitTimeoutMs) {
+    this.permits = new Semaphore(maxConcurrentCalls);
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.permitTimeoutMs = permitTimeoutMs;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("aws.calls.active", this, l -> l.maxConcurrentCalls - l.permits.availablePermits())
+        .description("AWS calls in flight")
+        .register(meterRegistry);
+  }
+
+  /** Runs the call once a permit is free, or fails if none frees up within the timeout. */
+  public <T> T call(String api, Supplier<T> call) {
+    acquire(api);
+    try {
+      return call.get();
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void acquire(String api) {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      meterRegistry.counter("aws.calls.rejected", "api", api).increment();
+      throw new AwsCallsSaturatedException("Too many AWS requests in progress, try again shortly");
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.cloud_tracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Public blog responses kept as the exact bytes that go on the wire, both plain and gzipped, with
+ * the ETag they are served under. A repeat request is a map lookup and a copy, and a revalidation
+ * is answered from the ETag alone. Anything that writes a blog must {@link #invalidateAll}.
+ */
+@Component
+public class BlogResponseCache implements MeterBinder {
+
+  private final ObjectMapper objectMapper;
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  // Bumped on every invalidation, so a render that raced a write is never stored.
+  private final AtomicLong generation = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * A serialized response body. {@code gzipped} is null when compressing did not make it smaller.
+   */
+  public record Rendered(byte[] json, byte[] gzipped, String etag) {}
+
+  private record Entry(Rendered rendered, long expiresAt) {}
+
+  public BlogResponseCache(
+      ObjectMapper objectMapper,
+      @Value("${blog.response-cache.ttl-seconds:600}") long ttlSeconds,
+      @Value("${blog.response-cache.max-entries:1000}") int maxEntries) {
+    this.objectMapper = objectMapper;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * The cached response under {@code key}, or the body {@code loader} returns rendered and cached.
+   * A null body is not cached and yields null.
+   */
+  public Rendered get(String key, Supplier<?> loader) {
+    return get(key, loader, null);
+  }
+
+  /**
+   * As {@link #get(String, Supplier)}, but served under the ETag {@code etag} gives the loaded
+   * body rather than a hash of its JSON.
+   */
+  public <T> Rendered get(String key, Supplier<T> loader, Function<? super T, String> etag) {
+    Entry entry = entries.get(key);
+    long now = System.currentTimeMillis();
+    if (entry != null && entry.expiresAt() > now) {
+      hits.increment();
+      return entry.rendered();
+    }
+    misses.increment();
+    long renderedAt = generation.get();
+    T body = loader.get();
+    if (body == null) return null;
+    Rendered rendered = render(body, etag == null ? null : etag.apply(body));
+    if (entries.size() >= maxEntries) {
+      entries.values().removeIf(stale -> stale.expiresAt() <= now);
+      if (entries.size() >= maxEntries) return rendered;
+    }
+    entries.put(key, new Entry(rendered, now + ttlMillis));
+    // A write may have landed between loading and storing; drop what we just stored if so.
+    if (generation.get() != renderedAt) entries.remove(key);
+    return rendered;
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  Rendered render(Object body) {
+    return render(body, null);
+  }
+
+  private Rendered render(Object body, String etag) {
+    byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize " + body.getClass().getSimpleName(), ex);
+    }
+    byte[] gzipped = gzip(json);
+    if (etag == null) {
+      // Weak: the plain and gzipped bytes are the same representation under one tag.
+      etag = "W/\"" + sha256(json).substring(0, 32) + "\"";
+    }
+    return new Rendered(json, gzipped.length < json.length ? gzipped : null, etag);
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CacheMeters.bind(registry, "blog_responses", this, hits, misses, cache -> cache.entries.size());
+  }
+}
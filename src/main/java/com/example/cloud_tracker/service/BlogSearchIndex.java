@@ -0,0 +1,314 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.repository.BlogRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * In-memory full-text index over the blogs, ranked with BM25.
+ *
+ * <p>Each blog is a slot. Every term has a postings list of (slot, term frequency) pairs kept in
+ * two growable int arrays, and every slot remembers its length and distinct terms so it can be
+ * taken out again. Removed slots are tombstoned and skipped; once they outnumber the live ones the
+ * postings are compacted. Queries share a read lock and only allocate a score per slot.
+ *
+ * <p>Built from the repository when the application starts and kept current by {@link
+ * BlogService}. Writes made by other instances are only seen after a restart.
+ */
+@Component
+public class BlogSearchIndex implements SmartLifecycle, MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(BlogSearchIndex.class);
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+  // Title terms are counted this many times, so a title match outranks a passing mention.
+  private static final int TITLE_WEIGHT = 3;
+  private static final int MAX_TERM_LENGTH = 40;
+  private static final int REBUILD_PAGE_SIZE = 100;
+
+  private final BlogRepository blogRepository;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<Integer, Integer> slotsByBlogId = new HashMap<>();
+  private int[] docLengths = new int[64];
+  private Postings[][] docTerms = new Postings[64][];
+  // Null for a removed slot.
+  private BlogSummaryDTO[] summaries = new BlogSummaryDTO[64];
+  private int slots;
+  private int liveDocs;
+  private long totalLength;
+
+  private volatile boolean running;
+
+  private static final class Postings {
+    int[] slots = new int[4];
+    int[] freqs = new int[4];
+    int size;
+    // Live documents containing the term.
+    int docFreq;
+
+    void add(int slot, int freq) {
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size * 2);
+        freqs = Arrays.copyOf(freqs, size * 2);
+      }
+      slots[size] = slot;
+      freqs[size] = freq;
+      size++;
+      docFreq++;
+    }
+  }
+
+  public BlogSearchIndex(BlogRepository blogRepository) {
+    this.blogRepository = blogRepository;
+  }
+
+  // Built as a lifecycle step, like the revoked token index: before the web server takes
+  // requests, but not during a CDS training run that exits at refresh.
+  @Override
+  public void start() {
+    rebuild();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  /** Indexes the blog, replacing whatever was indexed for it before. */
+  public void put(Blog blog) {
+    Map<String, Integer> freqs = termFrequencies(blog);
+    lock.writeLock().lock();
+    try {
+      removeLocked(blog.getId());
+      compactIfSparse();
+      int slot = slots++;
+      ensureCapacity(slots);
+      Postings[] terms = new Postings[freqs.size()];
+      int length = 0;
+      int i = 0;
+      for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+        Postings termPostings = postings.computeIfAbsent(entry.getKey(), term -> new Postings());
+        termPostings.add(slot, entry.getValue());
+        terms[i++] = termPostings;
+        length += entry.getValue();
+      }
+      docTerms[slot] = terms;
+      docLengths[slot] = length;
+      summaries[slot] =
+          new BlogSummaryDTO(blog.getId(), blog.getTitle(), blog.getCreatedAt(), blog.getExcerpt());
+      slotsByBlogId.put(blog.getId(), slot);
+      liveDocs++;
+      totalLength += length;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(int blogId) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(blogId);
+      compactIfSparse();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** The best matching blogs for the query, best first; empty if no term of it occurs. */
+  public List<BlogSummaryDTO> search(String query, int limit) {
+    List<String> terms = new ArrayList<>(tokenize(query).keySet());
+    if (terms.isEmpty() || limit < 1) return List.of();
+    lock.readLock().lock();
+    try {
+      if (liveDocs == 0) return List.of();
+      float averageLength = (float) totalLength / liveDocs;
+      float[] scores = new float[slots];
+      for (String term : terms) {
+        Postings termPostings = postings.get(term);
+        if (termPostings == null || termPostings.docFreq == 0) continue;
+        double idf =
+            Math.log(
+                1 + (liveDocs - termPostings.docFreq + 0.5) / (termPostings.docFreq + 0.5));
+        for (int i = 0; i < termPostings.size; i++) {
+          int slot = termPostings.slots[i];
+          if (summaries[slot] == null) continue;
+          int freq = termPostings.freqs[i];
+          float norm = K1 * (1 - B + B * docLengths[slot] / averageLength);
+          scores[slot] += (float) (idf * freq * (K1 + 1) / (freq + norm));
+        }
+      }
+      // Min-heap of the best slots seen so far.
+      PriorityQueue<Integer> best =
+          new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+      for (int slot = 0; slot < slots; slot++) {
+        if (scores[slot] <= 0) continue;
+        if (best.size() < limit) {
+          best.add(slot);
+        } else if (scores[slot] > scores[best.peek()]) {
+          best.poll();
+          best.add(slot);
+        }
+      }
+      BlogSummaryDTO[] ranked = new BlogSummaryDTO[best.size()];
+      for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = summaries[best.poll()];
+      return Arrays.asList(ranked);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Replaces the index with one built from every blog in the repository. */
+  void rebuild() {
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      slotsByBlogId.clear();
+      Arrays.fill(summaries, 0, slots, null);
+      Arrays.fill(docTerms, 0, slots, null);
+      slots = 0;
+      liveDocs = 0;
+      totalLength = 0;
+      PageRequest request = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+      Page<Blog> page;
+      do {
+        page = blogRepository.findAll(request);
+        page.forEach(this::put);
+        request = request.next();
+      } while (page.hasNext());
+      log.info("Indexed {} blogs, {} terms", liveDocs, postings.size());
+    } catch (DataAccessException | TransactionException ex) {
+      log.warn("Blog search index starts empty: {}", ex.getMessage());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeLocked(int blogId) {
+    Integer slot = slotsByBlogId.remove(blogId);
+    if (slot == null) return;
+    for (Postings termPostings : docTerms[slot]) termPostings.docFreq--;
+    totalLength -= docLengths[slot];
+    liveDocs--;
+    summaries[slot] = null;
+    docTerms[slot] = null;
+  }
+
+  // Renumbers the live slots densely and drops postings of removed ones, once removed slots
+  // outnumber live ones.
+  private void compactIfSparse() {
+    if (slots - liveDocs <= Math.max(64, liveDocs)) return;
+    int[] newSlots = new int[slots];
+    int next = 0;
+    for (int slot = 0; slot < slots; slot++) {
+      newSlots[slot] = summaries[slot] == null ? -1 : next;
+      if (summaries[slot] != null) {
+        docLengths[next] = docLengths[slot];
+        docTerms[next] = docTerms[slot];
+        summaries[next] = summaries[slot];
+        slotsByBlogId.put(summaries[next].getId(), next);
+        next++;
+      }
+    }
+    Arrays.fill(summaries, next, slots, null);
+    Arrays.fill(docTerms, next, slots, null);
+    postings
+        .values()
+        .removeIf(
+            termPostings -> {
+              int kept = 0;
+              for (int i = 0; i < termPostings.size; i++) {
+                int slot = newSlots[termPostings.slots[i]];
+                if (slot < 0) continue;
+                termPostings.slots[kept] = slot;
+                termPostings.freqs[kept] = termPostings.freqs[i];
+                kept++;
+              }
+              termPostings.size = kept;
+              return kept == 0;
+            });
+    slots = next;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= summaries.length) return;
+    int grown = Math.max(capacity, summaries.length * 2);
+    docLengths = Arrays.copyOf(docLengths, grown);
+    docTerms = Arrays.copyOf(docTerms, grown);
+    summaries = Arrays.copyOf(summaries, grown);
+  }
+
+  private static Map<String, Integer> termFrequencies(Blog blog) {
+    Map<String, Integer> freqs =
+        tokenize(blog.getHtmlContent() == null ? "" : HtmlText.visibleText(blog.getHtmlContent()));
+    if (blog.getTitle() != null) {
+      tokenize(blog.getTitle())
+          .forEach((term, freq) -> freqs.merge(term, freq * TITLE_WEIGHT, Integer::sum));
+    }
+    return freqs;
+  }
+
+  /**
+   * Lower-cased runs of letters and digits with accents stripped, so "Café" and "cafe" match,
+   * counted by occurrence.
+   */
+  static Map<String, Integer> tokenize(String text) {
+    Map<String, Integer> freqs = new LinkedHashMap<>();
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+    StringBuilder term = new StringBuilder();
+    for (int i = 0; i <= normalized.length(); i++) {
+      char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+      if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+      if (Character.isLetterOrDigit(c)) {
+        term.append(Character.toLowerCase(c));
+      } else if (!term.isEmpty()) {
+        if (term.length() <= MAX_TERM_LENGTH) freqs.merge(term.toString(), 1, Integer::sum);
+        term.setLength(0);
+      }
+    }
+    return freqs;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("blog_search.documents", this, index -> index.liveDocs)
+        .description("Blogs in the search index")
+        .register(registry);
+    Gauge.builder("blog_search.terms", this, index -> index.postings.size())
+        .description("Distinct terms in the search index")
+        .register(registry);
+  }
+}
@@ -1,18 +1,42 @@
 package com.example.cloud_tracker.service;
 
+import com.example.cloud_tracker.dto.BlogPageDTO;
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
 import com.example.cloud_tracker.model.Blog;
 import com.example.cloud_tracker.repository.BlogRepository;
-import java.util.ArrayList;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 
 @Service
 public class BlogService {
 
+  private static final Logger log = LoggerFactory.getLogger(BlogService.class);
+  public static final int MAX_PAGE_SIZE = 100;
+  public static final int MAX_SEARCH_RESULTS = 50;
+  // Newest first; ids grow with creation and, unlike createdAt, are set on every row.
+  private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
   @Autowired private BlogRepository blogRepository;
+  @Autowired private BlogResponseCache blogResponseCache;
+  @Autowired private BlogSearchIndex blogSearchIndex;
+
+  @PostConstruct
+  void load() {
+    backfillExcerpts();
+  }
 
   public ResponseEntity<String> saveBlog(String htmlContent, String title) {
     if (htmlContent == null) throw new IllegalArgumentException("htmlContent cannot be null");
@@ -22,20 +46,87 @@ public class BlogService {
     Blog blog = new Blog();
     blog.setHtmlContent(htmlContent);
     blog.setTitle(title);
-    blogRepository.save(blog);
+    blog.setExcerpt(excerpt(htmlContent));
+    blog.setCreatedAt(Instant.now());
+    blogSearchIndex.put(blogRepository.save(blog));
+    blogResponseCache.invalidateAll();
     return ResponseEntity.ok("Blog saved successfully");
   }
 
-  public List<Blog> getBlogs() {
+  /** One page of the blog index, newest first, without the article bodies. */
+  public BlogPageDTO getBlogSummaries(int page, int size) {
+    if (page < 0) throw new IllegalArgumentException("page cannot be negative");
+    if (size < 1) throw new IllegalArgumentException("size must be positive");
+    Page<BlogSummaryDTO> summaries =
+        blogRepository.findSummaries(
+            PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), NEWEST_FIRST));
+    return new BlogPageDTO(
+        summaries.getContent(),
+        summaries.getNumber(),
+        summaries.getSize(),
+        summaries.getTotalElements());
+  }
+
+  /** {@link #getBlogSummaries} as served, from the response cache. */
+  public BlogResponseCache.Rendered getRenderedBlogSummaries(int page, int size) {
+    int pageSize = Math.min(size, MAX_PAGE_SIZE);
+    return blogResponseCache.get(
+        "index:" + page + ":" + pageSize, () -> getBlogSummaries(page, pageSize));
+  }
 
-    return blogRepository.findAll();
+  /** Blogs matching the query, best match first. */
+  public List<BlogSummaryDTO> search(String query, int limit) {
+    if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+    return blogSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
   }
 
   public Optional<Blog> getBlogById(int id) {
     return blogRepository.findById(id);
   }
 
+  /**
+   * The blog as served, from the response cache, tagged with its {@link #etag}; null if there is
+   * no such blog.
+   */
+  public BlogResponseCache.Rendered getRenderedBlog(int id) {
+    return blogResponseCache.get(
+        "blog:" + id, () -> blogRepository.findById(id).orElse(null), BlogService::etag);
+  }
+
+  /** A strong ETag naming the blog's version, which every update bumps. */
+  static String etag(Blog blog) {
+    return "\"" + blog.getVersion() + "\"";
+  }
+
+  /**
+   * The version an If-Match header asks to update, or null when it does not ask for one. Takes
+   * what {@link #etag} produced, with or without the "-gzip" a compressed response adds to it.
+   */
+  public static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+    String tag = ifMatch.trim();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      String version = tag.substring(1, tag.length() - 1);
+      if (version.endsWith("-gzip")) version = version.substring(0, version.length() - 5);
+      try {
+        return Long.parseLong(version);
+      } catch (NumberFormatException ex) {
+        // Falls through to the rejection below.
+      }
+    }
+    throw new IllegalArgumentException("If-Match must be an ETag of this blog");
+  }
+
   public ResponseEntity<String> updateBlog(int id, String htmlContent, String title) {
+    return updateBlog(id, htmlContent, title, null);
+  }
+
+  /**
+   * Updates the blog if it is still at {@code expectedVersion} (any version if null). An update
+   * based on an older version, or racing another one, fails with an optimistic locking failure.
+   */
+  public ResponseEntity<String> updateBlog(
+      int id, String htmlContent, String title, Long expectedVersion) {
     if (htmlContent == null) throw new IllegalArgumentException("htmlContent cannot be null");
 
     if (title == null) throw new IllegalArgumentException("title cannot be null");
@@ -43,9 +134,14 @@ public class BlogService {
     Optional<Blog> optionalBlog = blogRepository.findById(id);
     if (optionalBlog.isPresent()) {
       Blog blog = optionalBlog.get();
+      if (expectedVersion != null && blog.getVersion() != expectedVersion) {
+        throw new ObjectOptimisticLockingFailureException(Blog.class, id);
+      }
       blog.setHtmlContent(htmlContent);
       blog.setTitle(title);
-      blogRepository.save(blog);
+      blog.setExcerpt(excerpt(htmlContent));
+      blogSearchIndex.put(blogRepository.save(blog));
+      blogResponseCache.invalidateAll();
       return ResponseEntity.ok("Blog updated successfully");
     }
 
@@ -56,9 +152,40 @@ public class BlogService {
     Optional<Blog> optionalBlog = blogRepository.findById(id);
     if (optionalBlog.isPresent()) {
       blogRepository.deleteById(id);
+      blogSearchIndex.remove(id);
+      blogResponseCache.invalidateAll();
       return ResponseEntity.ok("Blog deleted successfully");
     }
 
     throw new IllegalArgumentException("Blog not found");
   }
+
+  /**
+   * The visible text at the start of an article, cut at a word boundary after at most {@link
+   * Blog#EXCERPT_LENGTH} characters.
+   */
+  static String excerpt(String html) {
+    String text = HtmlText.visibleText(html);
+    if (text.length() <= Blog.EXCERPT_LENGTH) return text;
+    int cut = text.lastIndexOf(' ', Blog.EXCERPT_LENGTH);
+    if (cut < Blog.EXCERPT_LENGTH / 2) cut = Blog.EXCERPT_LENGTH;
+    return text.substring(0, cut).stripTrailing() + "…";
+  }
+
+  /** Fills in the excerpt of blogs written before it was stored. A no-op once it has run. */
+  void backfillExcerpts() {
+    List<Blog> blogs;
+    try {
+      blogs = blogRepository.findByExcerptIsNull();
+    } catch (DataAccessException | TransactionException ex) {
+      // No schema yet, e.g. the CDS training run, which starts against no database at all.
+      return;
+    }
+    if (blogs.isEmpty()) return;
+    for (Blog blog : blogs) {
+      blog.setExcerpt(blog.getHtmlContent() == null ? "" : excerpt(blog.getHtmlContent()));
+    }
+    blogRepository.saveAll(blogs);
+    log.info("Stored excerpts for {} blogs", blogs.size());
+  }
 }
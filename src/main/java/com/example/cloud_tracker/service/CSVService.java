@@ -7,6 +7,11 @@ import java.io.Reader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import com.example.cloud_tracker.configuration.DataSourceRoute;
+import com.example.cloud_tracker.metrics.CsvImportEvent;
+import com.example.cloud_tracker.metrics.CsvImportMetrics;
+import com.example.cloud_tracker.model.AWSService;
+import com.example.cloud_tracker.model.MonthlyCost;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,35 +21,54 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 public class CSVService {
 
+  // Monthly cost rows saved per transaction; each is sent as JDBC batches.
+  static final int SAVE_CHUNK_ROWS = 1000;
+
   @Autowired private AWSServicesService awsServicesService;
   @Autowired private MonthlyCostService monthlyCostService;
+  @Autowired private CsvImportMetrics csvImportMetrics;
 
   public void processCSV(MultipartFile file) throws IOException {
-    try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+    CsvImportEvent event = csvImportMetrics.start();
+    try (DataSourceRoute.Scope ingest = DataSourceRoute.INGEST.use();
+        Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
       Iterable<CSVRecord> records = CSVFormat.DEFAULT.parse(reader);
 
       List<String> serviceNames = new ArrayList<>();
       List<Double> totalCosts = new ArrayList<>();
       SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
       dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+      List<MonthlyCost> monthlyCosts = new ArrayList<>();
       int idx = 0;
       for (CSVRecord record : records) {
         if (idx == 0) {
           extractServiceNames(record, serviceNames);
         } else if (idx == 1) {
           extractTotalCosts(record, totalCosts);
-        } else {
           saveAWSServices(serviceNames, totalCosts);
-          extractMonthlyCost(record, dateFormat);
+        } else {
+          extractMonthlyCost(record, dateFormat, serviceNames, monthlyCosts);
+          if (monthlyCosts.size() >= SAVE_CHUNK_ROWS) {
+            monthlyCostService.addNewMonthlyCosts(monthlyCosts);
+            monthlyCosts = new ArrayList<>();
+          }
         }
         idx++;
       }
+      if (!monthlyCosts.isEmpty()) monthlyCostService.addNewMonthlyCosts(monthlyCosts);
+      csvImportMetrics.recordImport(
+          event, file.getOriginalFilename(), file.getSize(), Math.max(0, idx - 2), serviceNames.size());
     } catch (ParseException e) {
       throw new RuntimeException(e);
     }
   }
 
-  void extractMonthlyCost(CSVRecord record, SimpleDateFormat dateFormat)
+  /** Adds a row per service of the day's record to {@code monthlyCosts}. */
+  void extractMonthlyCost(
+      CSVRecord record,
+      SimpleDateFormat dateFormat,
+      List<String> serviceNames,
+      List<MonthlyCost> monthlyCosts)
       throws ParseException {
     Date date = null;
     List<Double> costs = new ArrayList<>();
@@ -62,9 +86,9 @@ public class CSVService {
     SimpleDateFormat yearMonthDayFormat = new SimpleDateFormat("yyyy-MM-dd");
     String formattedDate = yearMonthDayFormat.format(date);
 
+    // Service i was saved with id i + 1 from the same header, so its name needs no lookup.
     for (int i = 0; i < costs.size(); i++)
-      monthlyCostService.addNewMonthlyCost(
-              formattedDate, awsServicesService.getAWSServiceByID(i + 1), costs.get(i));
+      monthlyCosts.add(new MonthlyCost(formattedDate, serviceNames.get(i), costs.get(i)));
   }
 
   void extractServiceNames(CSVRecord record, List<String> serviceNames) {
@@ -82,8 +106,10 @@ public class CSVService {
   }
 
   void saveAWSServices(List<String> serviceNames, List<Double> totalCosts) {
+    List<AWSService> awsServices = new ArrayList<>(serviceNames.size());
     for (int i = 0; i < serviceNames.size(); i++) {
-      awsServicesService.addNewAWSService(i + 1, serviceNames.get(i), totalCosts.get(i));
+      awsServices.add(new AWSService(i + 1, serviceNames.get(i), totalCosts.get(i)));
     }
+    awsServicesService.addNewAWSServices(awsServices);
   }
 }
@@ -0,0 +1,37 @@
+package com.example.cloud_tracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registers the standard cache.gets / cache.size meters for our in-memory caches. The caches only
+ * bump {@link LongAdder}s on the hot path; the registry reads them when it is scraped.
+ */
+final class CacheMeters {
+
+  private CacheMeters() {}
+
+  static <C> void bind(
+      MeterRegistry registry,
+      String cacheName,
+      C cache,
+      LongAdder hits,
+      LongAdder misses,
+      ToDoubleFunction<C> size) {
+    FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+        .description("Cache lookups that found a live entry")
+        .tags("cache", cacheName, "result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+        .description("Cache lookups that found nothing or an expired entry")
+        .tags("cache", cacheName, "result", "miss")
+        .register(registry);
+    Gauge.builder("cache.size", cache, size)
+        .description("Entries currently cached")
+        .tag("cache", cacheName)
+        .register(registry);
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Server-side totals over a daily per-service cost series, so clients that only chart totals do
+ * not download and sum every row themselves.
+ *
+ * <p>Rows are read once. Each group gets a slot in a {@code double[]} of running totals, and a
+ * row's date is only parsed when it differs from the previous row's, since Cost Explorer returns
+ * rows grouped by day.
+ */
+public final class CostAggregation {
+
+  /** What rows are summed by. */
+  public enum GroupBy {
+    /** One row per day, service null. */
+    DAY,
+    /** One row per ISO week, dated its Monday, service null. */
+    WEEK,
+    /** One row per calendar month, dated its first day, service null. */
+    MONTH,
+    /** One row per service, dated the first day in the window, most expensive first. */
+    SERVICE;
+
+    public static GroupBy parse(String value) {
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException(
+            "groupBy must be one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+      }
+    }
+  }
+
+  private CostAggregation() {}
+
+  /**
+   * The rows dated within {@code [from, to]}, summed by {@code groupBy} and, for services, cut to
+   * the {@code topN} most expensive. Every argument but the rows may be null; with none given the
+   * rows are returned as they are.
+   */
+  public static List<ServiceCostDTO> aggregate(
+      List<ServiceCostDTO> costs, GroupBy groupBy, Integer topN, LocalDate from, LocalDate to) {
+    if (topN != null && topN < 1) throw new IllegalArgumentException("topN must be positive");
+    if (topN != null && groupBy != GroupBy.SERVICE) {
+      throw new IllegalArgumentException("topN only applies to groupBy=service");
+    }
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from cannot be after to");
+    }
+    if (groupBy == null && from == null && to == null) return costs;
+
+    long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+    long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+    List<ServiceCostDTO> kept = groupBy == null ? new ArrayList<>() : null;
+    Map<String, Integer> slots = new HashMap<>();
+    List<String> keys = new ArrayList<>();
+    double[] totals = new double[16];
+    String date = null;
+    long day = 0;
+    String periodKey = null;
+    long firstDay = Long.MAX_VALUE;
+
+    for (ServiceCostDTO cost : costs) {
+      // date is only null before the first row; a row without one fails in epochDay.
+      if (date == null || !date.equals(cost.getDate())) {
+        date = cost.getDate();
+        day = epochDay(date);
+        periodKey = groupBy == null ? null : periodKey(groupBy, date, day);
+      }
+      if (day < fromDay || day > toDay) continue;
+      if (kept != null) {
+        kept.add(cost);
+        continue;
+      }
+      firstDay = Math.min(firstDay, day);
+      String key = groupBy == GroupBy.SERVICE ? cost.getService() : periodKey;
+      Integer slot = slots.get(key);
+      if (slot == null) {
+        slot = keys.size();
+        slots.put(key, slot);
+        keys.add(key);
+        if (slot == totals.length) totals = Arrays.copyOf(totals, slot * 2);
+      }
+      if (cost.getCost() != null) totals[slot] += cost.getCost();
+    }
+    if (kept != null) return kept;
+
+    List<ServiceCostDTO> rows = new ArrayList<>(keys.size());
+    String windowStart = keys.isEmpty() ? null : LocalDate.ofEpochDay(firstDay).toString();
+    for (int slot = 0; slot < keys.size(); slot++) {
+      rows.add(
+          groupBy == GroupBy.SERVICE
+              ? new ServiceCostDTO(windowStart, keys.get(slot), totals[slot])
+              : new ServiceCostDTO(keys.get(slot), null, totals[slot]));
+    }
+    if (groupBy != GroupBy.SERVICE) {
+      // ISO dates sort as strings.
+      rows.sort(Comparator.comparing(ServiceCostDTO::getDate));
+      return rows;
+    }
+    rows.sort(
+        Comparator.comparingDouble(ServiceCostDTO::getCost)
+            .reversed()
+            .thenComparing(ServiceCostDTO::getService, Comparator.nullsLast(String::compareTo)));
+    return topN == null || topN >= rows.size() ? rows : new ArrayList<>(rows.subList(0, topN));
+  }
+
+  private static String periodKey(GroupBy groupBy, String date, long day) {
+    return switch (groupBy) {
+      case DAY -> date;
+      // Day 0, 1970-01-01, was a Thursday.
+      case WEEK -> LocalDate.ofEpochDay(day - Math.floorMod(day + 3, 7)).toString();
+      case MONTH -> date.substring(0, 8) + "01";
+      case SERVICE -> null;
+    };
+  }
+
+  private static long epochDay(String date) {
+    if (date == null) throw new IllegalArgumentException("Cost row without a date");
+    try {
+      return LocalDate.parse(date).toEpochDay();
+    } catch (DateTimeParseException ex) {
+      throw new IllegalArgumentException("Not an ISO date: " + date, ex);
+    }
+  }
+}
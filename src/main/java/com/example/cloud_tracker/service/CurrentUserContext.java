@@ -0,0 +1,22 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.model.User;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The authenticated user of the current request. {@code JwtFilter} fills in the principal; the
+ * full {@link User} is loaded by {@link UserService#getCurrentUser} the first time it is needed and
+ * reused for the rest of the request.
+ */
+@Getter
+@Setter
+@Component
+@RequestScope
+public class CurrentUserContext {
+  private UserDetails principal;
+  private User user;
+}
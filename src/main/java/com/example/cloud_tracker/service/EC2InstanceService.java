@@ -3,23 +3,32 @@ package com.example.cloud_tracker.service;
 import com.example.cloud_tracker.dto.Ec2DTO;
 import com.example.cloud_tracker.dto.Ec2ToRI;
 import com.example.cloud_tracker.dto.RIDTO;
+import com.example.cloud_tracker.metrics.AwsCallMetrics;
 import com.example.cloud_tracker.model.IAMRole;
 import java.util.*;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ec2.model.*;
 
+// Created on first use: keeps the EC2 SDK off the startup path.
+@Lazy
 @Service
 public class EC2InstanceService {
 
     private final AWSServicesService awsServicesService;
     IAMRoleService iamRoleService;
+    private final AwsCallMetrics awsCallMetrics;
+    private final AwsCallLimiter awsCallLimiter;
 
-    public EC2InstanceService(AWSServicesService awsServicesService, IAMRoleService iamRoleService){
+    public EC2InstanceService(AWSServicesService awsServicesService, IAMRoleService iamRoleService,
+                              AwsCallMetrics awsCallMetrics, AwsCallLimiter awsCallLimiter){
         this.awsServicesService = awsServicesService;
         this.iamRoleService = iamRoleService;
+        this.awsCallMetrics = awsCallMetrics;
+        this.awsCallLimiter = awsCallLimiter;
     }
 
     public List<Ec2ToRI> getEc2FromRI(IAMRole iamRole){
@@ -30,7 +39,10 @@ public class EC2InstanceService {
                 .build();
         DescribeReservedInstancesOfferingsRequest request = DescribeReservedInstancesOfferingsRequest.builder()
                     .build();
-        DescribeReservedInstancesOfferingsResponse response = ec2.describeReservedInstancesOfferings(request);
+        DescribeReservedInstancesOfferingsResponse response = awsCallLimiter.call(
+                "DescribeReservedInstancesOfferings",
+                () -> awsCallMetrics.record("DescribeReservedInstancesOfferings", iamRole,
+                        () -> ec2.describeReservedInstancesOfferings(request)));
         List<Ec2ToRI> instancesOfferings = new ArrayList<>();
 //        System.out.println(ec2DTOS.size());
 
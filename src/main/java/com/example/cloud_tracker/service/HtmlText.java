@@ -0,0 +1,54 @@
+package com.example.cloud_tracker.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Turns stored blog HTML into the plain text a reader sees, for excerpts and search. */
+final class HtmlText {
+
+  private static final Pattern INVISIBLE =
+      Pattern.compile(
+          "<(script|style)\\b.*?</\\1\\s*>|<!--.*?-->", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+  private static final Pattern TAG = Pattern.compile("<[^>]*>");
+  private static final Pattern ENTITY = Pattern.compile("&(#[xX]?[0-9a-fA-F]+|[a-zA-Z]+);");
+
+  private HtmlText() {}
+
+  /** Markup, scripts, styles and comments removed, entities decoded, whitespace collapsed. */
+  static String visibleText(String html) {
+    String text = TAG.matcher(INVISIBLE.matcher(html).replaceAll(" ")).replaceAll(" ");
+    return decodeEntities(text).replaceAll("\\s+", " ").strip();
+  }
+
+  private static String decodeEntities(String text) {
+    Matcher matcher = ENTITY.matcher(text);
+    StringBuilder decoded = new StringBuilder(text.length());
+    while (matcher.find()) {
+      String entity = matcher.group(1);
+      String replacement =
+          switch (entity) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "apos" -> "'";
+            case "nbsp" -> " ";
+            default -> entity.startsWith("#") ? codePoint(entity) : matcher.group();
+          };
+      matcher.appendReplacement(decoded, Matcher.quoteReplacement(replacement));
+    }
+    return matcher.appendTail(decoded).toString();
+  }
+
+  private static String codePoint(String entity) {
+    try {
+      int codePoint =
+          entity.startsWith("#x") || entity.startsWith("#X")
+              ? Integer.parseInt(entity.substring(2), 16)
+              : Integer.parseInt(entity.substring(1));
+      return Character.isValidCodePoint(codePoint) ? Character.toString(codePoint) : " ";
+    } catch (NumberFormatException ex) {
+      return " ";
+    }
+  }
+}
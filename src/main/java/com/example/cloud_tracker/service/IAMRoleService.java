@@ -10,23 +10,33 @@ import com.amazonaws.services.costexplorer.model.*;
 import com.example.cloud_tracker.dto.CostQueryDTO;
 import com.example.cloud_tracker.dto.Ec2DTO;
 import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.metrics.AwsCallMetrics;
 import com.example.cloud_tracker.model.IAMRole;
 import com.example.cloud_tracker.repository.IAMRoleRepository;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.function.Supplier;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+// Created on first use: keeps the Cost Explorer SDK off the startup path.
+@Lazy
 @Service
 public class IAMRoleService {
 
     private final IAMRoleRepository iamRoleRepository;
+    private final AwsCallMetrics awsCallMetrics;
+    private final AwsCallLimiter awsCallLimiter;
 
 
-    public IAMRoleService(IAMRoleRepository iamRoleRepository) {
+    public IAMRoleService(IAMRoleRepository iamRoleRepository, AwsCallMetrics awsCallMetrics,
+                          AwsCallLimiter awsCallLimiter) {
         this.iamRoleRepository = iamRoleRepository;
+        this.awsCallMetrics = awsCallMetrics;
+        this.awsCallLimiter = awsCallLimiter;
     }
 
     public List<IAMRole> getIAMRoles(int id) {
@@ -40,7 +50,6 @@ public class IAMRoleService {
     }
     public IAMRole addIAMRole(int id, String arn) {
         IAMRole newIAMRole = new IAMRole(arn);
-        System.out.println(id);
         newIAMRole.setUserId(id);
         return iamRoleRepository.save(newIAMRole);
     }
@@ -51,11 +60,23 @@ public class IAMRoleService {
         AWSCredentialsProvider credentialsProvider = new STSAssumeRoleSessionCredentialsProvider.Builder(
                     iamRole.getArn(), "SESSION_NAME")
                     .build();
+        // Assume the role up front, so STS latency is recorded apart from the Cost Explorer calls.
+        awsCall("AssumeRole", iamRole, 1, credentialsProvider::getCredentials);
         return new CostQueryDTO( startDate.toString(), endDate.toString(), credentialsProvider, "us-east-1");
     }
 
     public List<ServiceCostDTO> getBlendedCost(IAMRole iamRole) {
-        
+        return getBlendedCost(iamRole, null, null);
+    }
+
+    /**
+     * Daily cost per service over the days of {@code [from, to]} within the last six months; a
+     * null bound leaves that end of the six months as it is. Only those days are fetched.
+     */
+    public List<ServiceCostDTO> getBlendedCost(IAMRole iamRole, LocalDate from, LocalDate to) {
+        DateInterval window = costWindow(LocalDate.now(), from, to);
+        if (window == null) return new ArrayList<>();
+
         CostQueryDTO costQueryDTO = getData(iamRole);
         AWSCostExplorer client = AWSCostExplorerClientBuilder.standard()
                 .withCredentials(costQueryDTO.getAwsCredentialsProvider())
@@ -63,18 +84,45 @@ public class IAMRoleService {
                 .build();
  
         GetCostAndUsageRequest request = new GetCostAndUsageRequest()
-                .withTimePeriod(new DateInterval()
-                        .withStart(costQueryDTO.getStartDate())
-                        .withEnd(costQueryDTO.getEndDate()))
+                .withTimePeriod(window)
                 .withGranularity("DAILY")
                 .withMetrics("BlendedCost")
                 .withGroupBy(new GroupDefinition().withType("DIMENSION").withKey("SERVICE"));
  
-        GetCostAndUsageResult result = client.getCostAndUsage(request);
- 
+        return toServiceCosts(getCostAndUsage(client, request, iamRole));
+    }
+
+    /**
+     * The six months up to {@code today}, as {@link #getData} queries them, narrowed to {@code
+     * [from, to]}; null if nothing is left. Cost Explorer's end date is exclusive.
+     */
+    static DateInterval costWindow(LocalDate today, LocalDate from, LocalDate to) {
+        LocalDate start = today.minusMonths(6);
+        LocalDate end = today;
+        if (from != null && from.isAfter(start)) start = from;
+        if (to != null && to.plusDays(1).isBefore(end)) end = to.plusDays(1);
+        if (!start.isBefore(end)) return null;
+        return new DateInterval().withStart(start.toString()).withEnd(end.toString());
+    }
+
+    /** Follows Cost Explorer's page tokens until every page of the request has been fetched. */
+    private List<ResultByTime> getCostAndUsage(
+            AWSCostExplorer client, GetCostAndUsageRequest request, IAMRole iamRole) {
+        List<ResultByTime> resultsByTime = new ArrayList<>();
+        int page = 0;
+        do {
+            GetCostAndUsageResult result = awsCall(
+                    "GetCostAndUsage", iamRole, ++page, () -> client.getCostAndUsage(request));
+            resultsByTime.addAll(result.getResultsByTime());
+            request.setNextPageToken(result.getNextPageToken());
+        } while (request.getNextPageToken() != null);
+        return resultsByTime;
+    }
+
+    public List<ServiceCostDTO> toServiceCosts(List<ResultByTime> resultsByTime) {
         List<ServiceCostDTO> totalBlendedCost = new ArrayList<>();
  
-        for (ResultByTime resultByTime : result.getResultsByTime()) {
+        for (ResultByTime resultByTime : resultsByTime) {
             String date = resultByTime.getTimePeriod().getStart();
             for(Group group : resultByTime.getGroups()){
                 String service = group.getKeys().get(0);
@@ -126,10 +174,7 @@ public class IAMRoleService {
 
                 );
 
-        GetCostAndUsageResult result = client.getCostAndUsage(request);
-
-
-        for (ResultByTime resultByTime : result.getResultsByTime()) {
+        for (ResultByTime resultByTime : getCostAndUsage(client, request, iamRole)) {
             for (Group group : resultByTime.getGroups()) {
                 List<String> keys = group.getKeys();
                 String instanceType = !keys.isEmpty() ? keys.get(0) : "Unknown InstanceType";
@@ -150,9 +195,7 @@ public class IAMRoleService {
                                     new GroupDefinition().withType("DIMENSION").withKey("OPERATING_SYSTEM")
                             );
 
-                    GetCostAndUsageResult additionalResult = client.getCostAndUsage(additionalRequest);
-
-                    for (ResultByTime additionalResultByTime : additionalResult.getResultsByTime()) {
+                    for (ResultByTime additionalResultByTime : getCostAndUsage(client, additionalRequest, iamRole)) {
                         for (Group additionalGroup : additionalResultByTime.getGroups()) {
                             String usageType = additionalGroup.getKeys().get(0);
                             double additionalCost = Double.parseDouble(additionalGroup.getMetrics().get("UnblendedCost").getAmount());
@@ -188,9 +231,14 @@ public class IAMRoleService {
                 .withMetric(Metric.BLENDED_COST)
                 .withGranularity("MONTHLY");
 
-        GetCostForecastResult result = costExplorer.getCostForecast(request);
+        GetCostForecastResult result = awsCall(
+                "GetCostForecast", iamRole, 1, () -> costExplorer.getCostForecast(request));
 
         return Double.parseDouble(result.getTotal().getAmount());
     }
 
+    private <T> T awsCall(String api, IAMRole iamRole, int page, Supplier<T> call) {
+        return awsCallLimiter.call(api, () -> awsCallMetrics.record(api, iamRole, page, call));
+    }
+
 }
@@ -1,10 +1,9 @@
 package com.example.cloud_tracker.service;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.interfaces.DecodedJWT;
-import com.example.cloud_tracker.model.BlackListedTokens;
-import com.example.cloud_tracker.repository.BlackListedTokensRepository;
+import com.example.cloud_tracker.model.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -24,8 +23,12 @@ public class JwtService {
 
     private static final String SECRET_KEY="1b7b9849719e40adc0c02f742f498ea5f1b0c468cd37be53429142565b1df374";
 
+    // The key and parser are immutable and thread-safe, so build them once instead of per request.
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGNING_KEY).build();
+
     @Autowired
-    private BlackListedTokensRepository blackListedTokensRepository;
+    private TokenRevocationService tokenRevocationService;
 
     public String extractUserName(String token) {
         return extractClaim(token, Claims :: getSubject);
@@ -36,14 +39,9 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    
-    public Boolean isTokenExpired(String token) {
-        DecodedJWT jwt = JWT.decode(token);
-        return jwt.getExpiresAt().before(new Date());
-    }
 
     public Boolean isTokenBlackListed(String token){
-        return blackListedTokensRepository.existsByToken(token);
+        return tokenRevocationService.isRevoked(TokenDigest.of(token));
     }
     
     public void blackListToken(HttpServletRequest request){
@@ -52,32 +50,47 @@ public class JwtService {
             return;
         }
         final String jwt = authHeader.substring(7);
-        BlackListedTokens blackListedTokens= new BlackListedTokens();
-        blackListedTokens.setToken(jwt);
-        blackListedTokensRepository.save(blackListedTokens);
-
+        // Tokens that don't verify (tampered or already expired) can't authenticate, nothing to revoke.
+        final VerifiedToken token = verifyToken(jwt);
+        if(token == null || token.getExpiration() == null){
+            return;
+        }
+        tokenRevocationService.revoke(TokenDigest.of(jwt), token.getExpiration().toInstant());
     }
     
+    /**
+     * Checks the signature and parses the claims in a single pass.
+     * Returns null when the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verifyToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return new VerifiedToken(token, claims.getSubject(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Validates a token the caller has already verified and hashed, so neither is redone here.
+     * The digest is the {@link TokenDigest} of {@code token.getToken()}.
+     */
+    public Boolean validateToken(VerifiedToken token, String digest, UserDetails userDetails) {
+        if(token == null || userDetails == null || token.isExpired() || tokenRevocationService.isRevoked(digest)) return false;
+        return userDetails.getUsername().equals(token.getSubject());
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        if(isTokenExpired(token) || isTokenBlackListed(token) || userDetails == null) return false;
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername()));
+        return validateToken(verifyToken(token), TokenDigest.of(token), userDetails);
     }
     
     
     public Claims extractAllClaims(String token){
-        return Jwts
-        .parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
     }
     
     public Key getSigningKey(){
-        
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return SIGNING_KEY;
     }
     
     public String generateToken(UserDetails userDetails){
@@ -17,6 +17,8 @@ public class LogoutService implements LogoutHandler {
   @Override
   public void logout(
       HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+    // Once revoked the token is rejected even if a concurrent request caches it again: JwtFilter
+    // checks every cache hit against the revocation index.
     jwtService.blackListToken(request);
   }
 }
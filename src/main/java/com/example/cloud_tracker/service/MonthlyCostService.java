@@ -1,15 +1,30 @@
 package com.example.cloud_tracker.service;
 
+import com.example.cloud_tracker.configuration.DataSourceRoute;
 import com.example.cloud_tracker.model.MonthlyCost;
 import com.example.cloud_tracker.repository.MonthlyCostRepository;
+import jakarta.annotation.PostConstruct;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MonthlyCostService {
 
+  private static final Logger log = LoggerFactory.getLogger(MonthlyCostService.class);
+
   @Autowired private MonthlyCostRepository monthlyCostRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @PostConstruct
+  void load() {
+    alignIdSequence();
+  }
 
   public void addNewMonthlyCost(String date, String serviceName, Double cost) {
     MonthlyCost monthlyCost = new MonthlyCost();
@@ -19,7 +34,33 @@ public class MonthlyCostService {
     monthlyCostRepository.save(monthlyCost);
   }
 
+  /** Inserts the rows in one transaction, as JDBC batches of hibernate.jdbc.batch_size. */
+  public void addNewMonthlyCosts(List<MonthlyCost> monthlyCosts) {
+    monthlyCostRepository.saveAll(monthlyCosts);
+  }
+
+  // Only charted; a replica a few seconds behind the last CSV import is fine.
+  @Transactional(readOnly = true, label = DataSourceRoute.REPLICA_LABEL)
   public List<MonthlyCost> getAllMonthlyCostInfo() {
     return monthlyCostRepository.findAll();
   }
+
+  /**
+   * Moves the id sequence past rows inserted while ids came from an identity column, so new
+   * rows do not collide with them. A no-op once it has run, and where the sequence is a real
+   * one rather than MySQL's one-row table.
+   */
+  void alignIdSequence() {
+    try {
+      Integer maxId =
+          jdbcTemplate.queryForObject("select max(id) from `monthly-cost`", Integer.class);
+      if (maxId == null) return;
+      int moved =
+          jdbcTemplate.update(
+              "update monthly_cost_seq set next_val = ? where next_val <= ?", maxId + 1, maxId);
+      if (moved > 0) log.info("Moved the monthly cost id sequence past id {}", maxId);
+    } catch (DataAccessException ex) {
+      // No table yet, or no sequence table to move; either way there is nothing to collide with.
+    }
+  }
 }
@@ -0,0 +1,126 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of on whichever request thread asked.
+ *
+ * <p>A burst of signins can only occupy the pool's threads plus a short queue; anything beyond
+ * that is rejected straight away with {@link PasswordHashingUnavailableException}, so the rest of
+ * the API keeps its request threads. The encoder's strength is the target cost: hashes stored at a
+ * lower cost report {@link #needsRehash} so they can be upgraded on login.
+ */
+@Service
+public class PasswordHashingService {
+
+  private final BCryptPasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMillis;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public PasswordHashingService(
+      BCryptPasswordEncoder encoder,
+      MeterRegistry meterRegistry,
+      @Value("${auth.password-hashing.threads:0}") int threads,
+      @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${auth.password-hashing.timeout-ms:5000}") long timeoutMillis) {
+    this.encoder = encoder;
+    this.timeoutMillis = timeoutMillis;
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    this.encodeTimer = timer(meterRegistry, "encode");
+    this.matchesTimer = timer(meterRegistry, "matches");
+    this.rejected =
+        Counter.builder("password.hashing.rejected")
+            .description("Hash requests turned away because the pool was saturated")
+            .register(meterRegistry);
+    Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+        .description("Hash requests waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Hashes currently being computed")
+        .register(meterRegistry);
+  }
+
+  public String encode(CharSequence rawPassword) {
+    return submit(encodeTimer, () -> encoder.encode(rawPassword));
+  }
+
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(matchesTimer, () -> encoder.matches(rawPassword, encodedPassword));
+  }
+
+  /** Whether the hash was made with a lower cost than the configured target. */
+  public boolean needsRehash(String encodedPassword) {
+    return encoder.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T submit(Timer timer, Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(() -> timer.recordCallable(task));
+    } catch (RejectedExecutionException ex) {
+      rejected.increment();
+      throw new PasswordHashingUnavailableException("Too many sign-in attempts, try again shortly");
+    }
+    try {
+      return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      rejected.increment();
+      throw new PasswordHashingUnavailableException("Too many sign-in attempts, try again shortly");
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException("Interrupted while hashing password");
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) throw cause;
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  private static Timer timer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("password.hashing")
+        .description("Time spent computing BCrypt hashes, excluding time queued")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,277 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.model.ProfileImage;
+import com.example.cloud_tracker.repository.ProfileImageRepository;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores profile pictures outside the users table, so loading a user never drags the image along.
+ *
+ * <p>Images arrive as base64 (optionally a data URL) and are kept as bytes keyed by user id,
+ * together with their SHA-256 and a small PNG thumbnail. The hash is what clients revalidate
+ * against, so the full image only crosses the wire when it has changed.
+ */
+@Service
+public class ProfileImageService implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(ProfileImageService.class);
+  private static final String THUMBNAIL_TYPE = "image/png";
+  // Decoded size guard against images that are small on the wire but huge in memory.
+  private static final long MAX_PIXELS = 40_000_000L;
+
+  private final ProfileImageRepository profileImageRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int maxBytes;
+  private final int thumbnailSize;
+
+  /** Image bytes ready to be served, with the content type they should be served as. */
+  public record Picture(String contentType, byte[] bytes) {}
+
+  public ProfileImageService(
+      ProfileImageRepository profileImageRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${user.profile-image.max-bytes:5242880}") int maxBytes,
+      @Value("${user.profile-image.thumbnail-size:128}") int thumbnailSize) {
+    this.profileImageRepository = profileImageRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxBytes = maxBytes;
+    this.thumbnailSize = thumbnailSize;
+  }
+
+  private volatile boolean running;
+
+  // A lifecycle step, like TokenRevocationService's import: done before the web server takes
+  // requests, without a database for a CDS training run that exits at refresh.
+  @Override
+  public void start() {
+    importLegacyImages();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  /**
+   * Replaces the user's picture; a null or blank image removes it. Re-submitting the current
+   * picture, or the thumbnail handed out by {@link #getThumbnailDataUrl}, leaves it untouched.
+   */
+  @Transactional
+  public void store(int userId, String image) {
+    if (image == null || image.isBlank()) {
+      profileImageRepository.deleteById(userId);
+      return;
+    }
+    byte[] bytes = decode(image);
+    String hash = sha256(bytes);
+    ProfileImage existing = profileImageRepository.findById(userId).orElse(null);
+    if (existing != null
+        && (hash.equals(existing.getContentHash())
+            || Arrays.equals(bytes, existing.getThumbnail()))) {
+      return;
+    }
+    profileImageRepository.save(toProfileImage(userId, bytes, hash));
+  }
+
+  /** SHA-256 of the user's current picture, or null if they don't have one. */
+  public String getContentHash(int userId) {
+    return profileImageRepository.findContentHashByUserId(userId);
+  }
+
+  public Picture getPicture(int userId) {
+    return profileImageRepository
+        .findById(userId)
+        .map(image -> new Picture(
+            image.getContentType(),
+            image.isCompressed() ? gunzip(image.getData()) : image.getData()))
+        .orElse(null);
+  }
+
+  public Picture getThumbnail(int userId) {
+    byte[] thumbnail = profileImageRepository.findThumbnailByUserId(userId);
+    return thumbnail == null ? null : new Picture(THUMBNAIL_TYPE, thumbnail);
+  }
+
+  /** The thumbnail as a data URL small enough to inline in a profile response. */
+  public String getThumbnailDataUrl(int userId) {
+    byte[] thumbnail = profileImageRepository.findThumbnailByUserId(userId);
+    if (thumbnail == null) return null;
+    return "data:" + THUMBNAIL_TYPE + ";base64," + Base64.getEncoder().encodeToString(thumbnail);
+  }
+
+  ProfileImage toProfileImage(int userId, byte[] bytes, String hash) {
+    try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) throw new IllegalArgumentException("Unsupported image format");
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+          throw new IllegalArgumentException("Image dimensions are too large");
+        }
+        String contentType = reader.getOriginatingProvider().getMIMETypes()[0];
+        byte[] thumbnail = thumbnail(reader.read(0));
+        byte[] gzipped = gzip(bytes);
+        boolean compressed = gzipped.length < bytes.length;
+        return new ProfileImage(
+            userId, hash, contentType, compressed ? gzipped : bytes, compressed, thumbnail);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Invalid image");
+    }
+  }
+
+  private byte[] decode(String image) {
+    String base64 = image.startsWith("data:") ? image.substring(image.indexOf(',') + 1) : image;
+    // Four base64 characters per three bytes; reject before allocating the decoded array.
+    if ((long) base64.length() / 4 * 3 > maxBytes) {
+      throw new IllegalArgumentException("Image is too large");
+    }
+    try {
+      return Base64.getMimeDecoder().decode(base64);
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Invalid image");
+    }
+  }
+
+  private byte[] thumbnail(BufferedImage source) throws IOException {
+    double scale =
+        Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+    int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+    int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(scaled, "png", out);
+    return out.toByteArray();
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] gunzip(byte[] bytes) {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Moves pictures from the old users.image column into profile_images and drops the column. A
+   * no-op once it has run.
+   *
+   * <p>All pictures are moved in one transaction, so a failed start leaves nothing half done, and
+   * the column is only dropped once every one of them has been moved. Pictures that cannot be
+   * read keep it in place for an operator to fix or clear; storing the rest again on the next
+   * start changes nothing, as {@link #store} skips pictures it already has.
+   */
+  void importLegacyImages() {
+    Integer unreadable = transactionTemplate.execute(status -> moveLegacyImages());
+    if (unreadable == null) return;
+    if (unreadable > 0) {
+      log.warn("Keeping users.image: {} profile images could not be migrated", unreadable);
+      return;
+    }
+    try {
+      jdbcTemplate.execute("alter table users drop column image");
+    } catch (DataAccessException ex) {
+      // Dropped by another instance that migrated at the same time.
+    }
+  }
+
+  /** Returns the number of pictures that could not be moved, or null without a legacy column. */
+  private Integer moveLegacyImages() {
+    List<Map<String, Object>> rows;
+    try {
+      // Locked, so an instance starting at the same time waits and then finds them all stored.
+      rows = jdbcTemplate.queryForList(
+          "select id, image from users where image is not null for update");
+    } catch (DataAccessException ex) {
+      return null;
+    }
+    int unreadable = 0;
+    for (Map<String, Object> row : rows) {
+      int userId = ((Number) row.get("id")).intValue();
+      try {
+        store(userId, String.valueOf(row.get("image")));
+      } catch (IllegalArgumentException ex) {
+        unreadable++;
+        log.warn("Cannot migrate profile image of user {}: {}", userId, ex.getMessage());
+      }
+    }
+    log.info(
+        "Migrated {} of {} profile images to profile_images",
+        rows.size() - unreadable,
+        rows.size());
+    return unreadable;
+  }
+}
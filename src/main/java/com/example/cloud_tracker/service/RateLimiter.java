@@ -0,0 +1,138 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.configuration.RateLimitProperties;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Policy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Token buckets keyed by policy and client. Buckets are spread over independent maps so an
+ * eviction sweep only ever holds one stripe's bins at a time, and taking a token is a single CAS
+ * on the bucket's state.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+  private static final int STRIPES = 16;
+
+  private final RateLimitProperties properties;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+
+  @SuppressWarnings("unchecked")
+  public RateLimiter(RateLimitProperties properties) {
+    this.properties = properties;
+    this.stripes = new ConcurrentHashMap[STRIPES];
+    for (int i = 0; i < STRIPES; i++) stripes[i] = new ConcurrentHashMap<>();
+  }
+
+  /** The first policy covering the path, or null if the path isn't limited. */
+  public Policy policyFor(String path) {
+    for (Policy policy : properties.getPolicies()) {
+      for (String pattern : policy.getPaths()) {
+        if (pathMatcher.match(pattern, path)) return policy;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes a token from the client's bucket for the policy.
+   *
+   * @return 0 if the request may proceed, otherwise how many nanoseconds until it could
+   */
+  public long tryAcquire(Policy policy, String client) {
+    return tryAcquire(policy, client, System.nanoTime());
+  }
+
+  long tryAcquire(Policy policy, String client, long now) {
+    String key = policy.getName() + ':' + client;
+    return stripe(key)
+        .computeIfAbsent(key, k -> new TokenBucket(policy.getCapacity(), now))
+        .tryConsume(policy.getCapacity(), policy.getRefillPerSecond(), now);
+  }
+
+  @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+  public void evictIdle() {
+    evictIdle(System.nanoTime());
+  }
+
+  void evictIdle(long now) {
+    long idleNanos = properties.getIdleEviction().toNanos();
+    for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+      stripe.entrySet().removeIf(entry -> {
+        Policy policy = policyNamed(entry.getKey().substring(0, entry.getKey().indexOf(':')));
+        return policy == null
+            || entry.getValue()
+                .isIdle(now, idleNanos, policy.getCapacity(), policy.getRefillPerSecond());
+      });
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("rate_limit.buckets", this, RateLimiter::size)
+        .description("Token buckets currently tracked")
+        .register(registry);
+  }
+
+  int size() {
+    int size = 0;
+    for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) size += stripe.size();
+    return size;
+  }
+
+  private Policy policyNamed(String name) {
+    for (Policy policy : properties.getPolicies()) {
+      if (policy.getName().equals(name)) return policy;
+    }
+    return null;
+  }
+
+  private ConcurrentHashMap<String, TokenBucket> stripe(String key) {
+    int hash = key.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+  }
+
+  static final class TokenBucket {
+    private record State(double tokens, long updatedAt) {}
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, long now) {
+      this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    long tryConsume(int capacity, double refillPerSecond, long now) {
+      double refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+      while (true) {
+        State current = state.get();
+        double tokens = available(current, capacity, refillPerNano, now);
+        if (tokens < 1) return (long) Math.ceil((1 - tokens) / refillPerNano);
+        if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) {
+          return 0;
+        }
+      }
+    }
+
+    // A full bucket behaves exactly like a fresh one, so dropping it loses nothing.
+    boolean isIdle(long now, long idleNanos, int capacity, double refillPerSecond) {
+      State current = state.get();
+      double refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+      return now - current.updatedAt() >= idleNanos
+          && available(current, capacity, refillPerNano, now) >= capacity;
+    }
+
+    private static double available(State state, int capacity, double refillPerNano, long now) {
+      long elapsed = Math.max(0, now - state.updatedAt());
+      return Math.min(capacity, state.tokens() + elapsed * refillPerNano);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.cloud_tracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** SHA-256 of a bearer token, used as a fixed-size key so raw tokens aren't kept around. */
+public final class TokenDigest {
+
+  private TokenDigest() {}
+
+  public static String of(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      // Every JVM is required to ship SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.example.cloud_tracker.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.cloud_tracker.model.BlackListedTokens;
+import com.example.cloud_tracker.repository.BlackListedTokensRepository;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of revoked tokens, keyed by {@link TokenDigest}.
+ *
+ * <p>A Bloom filter answers the common "not revoked" case without touching the map or the
+ * database; only possible hits are confirmed against the set of live revoked digests. The
+ * revoked_tokens table is the source of truth: it is reloaded periodically to pick up revocations
+ * made by other instances, and rows are deleted once their token has expired.
+ */
+@Service
+public class TokenRevocationService implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+  private final BlackListedTokensRepository blackListedTokensRepository;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final JdbcTemplate jdbcTemplate;
+  private final int bloomFilterBits;
+
+  // Replaced as a pair on every sync; revoke() and the swap are serialized on swapLock. A lock
+  // rather than synchronized, so a virtual thread waiting for it does not pin its carrier.
+  private volatile Snapshot snapshot;
+  private final ReentrantLock swapLock = new ReentrantLock();
+
+  private record Snapshot(BloomFilter bloom, Map<String, Instant> revoked) {}
+
+  public TokenRevocationService(
+      BlackListedTokensRepository blackListedTokensRepository,
+      VerifiedTokenCache verifiedTokenCache,
+      JdbcTemplate jdbcTemplate,
+      @Value("${jwt.revocation.bloom-filter-bits:1048576}") int bloomFilterBits) {
+    this.blackListedTokensRepository = blackListedTokensRepository;
+    this.verifiedTokenCache = verifiedTokenCache;
+    this.jdbcTemplate = jdbcTemplate;
+    this.bloomFilterBits = bloomFilterBits;
+    this.snapshot = new Snapshot(new BloomFilter(bloomFilterBits), new ConcurrentHashMap<>());
+  }
+
+  private volatile boolean running;
+
+  // Loaded as a lifecycle step rather than at bean creation: it still completes before the web
+  // server (a later phase) takes requests, but a CDS training run that exits at refresh never
+  // needs the database.
+  @Override
+  public void start() {
+    importLegacyBlacklist();
+    sync();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  public boolean isRevoked(String digest) {
+    Snapshot current = snapshot;
+    return current.bloom().mightContain(digest) && current.revoked().containsKey(digest);
+  }
+
+  public void revoke(String digest, Instant expiresAt) {
+    insertIfAbsent(new BlackListedTokens(digest, expiresAt));
+    swapLock.lock();
+    try {
+      Snapshot current = snapshot;
+      current.revoked().put(digest, expiresAt);
+      current.bloom().add(digest);
+    } finally {
+      swapLock.unlock();
+    }
+    // Frees the cache entry early. It does not stop the token from authenticating: a request
+    // verifying it right now can still cache it after this. JwtFilter rejects cached tokens
+    // that isRevoked reports, which is the guarantee.
+    verifiedTokenCache.invalidate(digest);
+  }
+
+  /** Prunes expired rows and reloads the index from the database. */
+  @Scheduled(
+      fixedDelayString = "${jwt.revocation.sync-interval-ms:60000}",
+      initialDelayString = "${jwt.revocation.sync-interval-ms:60000}")
+  public void sync() {
+    Instant now = Instant.now();
+    int pruned = blackListedTokensRepository.deleteExpired(now);
+    List<BlackListedTokens> rows = blackListedTokensRepository.findByExpiresAtAfter(now);
+
+    BloomFilter bloom = new BloomFilter(bloomFilterBits);
+    Map<String, Instant> revoked = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+    for (BlackListedTokens row : rows) {
+      revoked.put(row.getTokenDigest(), row.getExpiresAt());
+    }
+    swapLock.lock();
+    try {
+      // Keep revocations made locally while the rows were being read.
+      snapshot.revoked().forEach((digest, expiresAt) -> {
+        if (expiresAt.isAfter(now)) revoked.putIfAbsent(digest, expiresAt);
+      });
+      revoked.keySet().forEach(bloom::add);
+      Map<String, Instant> previous = snapshot.revoked();
+      snapshot = new Snapshot(bloom, revoked);
+      // Tokens revoked on another instance may still be cached here.
+      revoked.keySet().stream()
+          .filter(digest -> !previous.containsKey(digest))
+          .forEach(verifiedTokenCache::invalidate);
+    } finally {
+      swapLock.unlock();
+    }
+    if (pruned > 0) log.debug("Pruned {} expired revoked tokens", pruned);
+  }
+
+  /**
+   * Moves rows of the old black_listed_tokens table, which stored whole tokens, into the digest
+   * table and drops it. A no-op once it has run, and safe to repeat: an instance that stopped
+   * between the inserts and the drop, or another instance migrating at the same time, leaves
+   * digests that are already stored, and those are skipped.
+   */
+  void importLegacyBlacklist() {
+    List<String> tokens;
+    try {
+      tokens = jdbcTemplate.queryForList("select token from black_listed_tokens", String.class);
+    } catch (DataAccessException ex) {
+      return;
+    }
+    Instant now = Instant.now();
+    // Keyed by digest: the old table did not stop a token from being listed twice.
+    Map<String, BlackListedTokens> rows = new LinkedHashMap<>();
+    for (String token : tokens) {
+      try {
+        DecodedJWT jwt = JWT.decode(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().toInstant().isAfter(now)) {
+          String digest = TokenDigest.of(token);
+          rows.put(digest, new BlackListedTokens(digest, jwt.getExpiresAt().toInstant()));
+        }
+      } catch (RuntimeException ex) {
+        // Not a decodable JWT, so it could never authenticate anyway.
+      }
+    }
+    rows.values().forEach(this::insertIfAbsent);
+    jdbcTemplate.execute("drop table if exists black_listed_tokens");
+    log.info("Migrated {} blacklisted tokens to revoked_tokens", rows.size());
+  }
+
+  private void insertIfAbsent(BlackListedTokens row) {
+    try {
+      blackListedTokensRepository.save(row);
+    } catch (DataIntegrityViolationException ex) {
+      // Already stored, here or on another instance; the row is inserted without a lookup.
+    }
+  }
+
+  /**
+   * Fixed-size Bloom filter over token digests. The digest is already a uniform hash, so the
+   * probe positions are derived from its first 128 bits with double hashing.
+   */
+  static final class BloomFilter {
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray words;
+    private final long bits;
+
+    BloomFilter(int bits) {
+      this.words = new AtomicLongArray(Math.max(1, (bits + 63) / 64));
+      this.bits = words.length() * 64L;
+    }
+
+    void add(String digest) {
+      long h1 = Long.parseUnsignedLong(digest, 0, 16, 16);
+      long h2 = Long.parseUnsignedLong(digest, 16, 32, 16);
+      for (int i = 0; i < HASHES; i++) {
+        long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+          current = words.get(word);
+        } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+      }
+    }
+
+    boolean mightContain(String digest) {
+      long h1 = Long.parseUnsignedLong(digest, 0, 16, 16);
+      long h2 = Long.parseUnsignedLong(digest, 16, 32, 16);
+      for (int i = 0; i < HASHES; i++) {
+        long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+      }
+      return true;
+    }
+  }
+}
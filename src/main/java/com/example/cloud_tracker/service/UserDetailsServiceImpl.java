@@ -1,6 +1,6 @@
 package com.example.cloud_tracker.service;
 
-import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.UserPrincipal;
 import com.example.cloud_tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,11 +12,15 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
   @Autowired private UserRepository userRepository;
+  @Autowired private UserPrincipalCache userPrincipalCache;
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findByEmail(username);
-    if (user == null) throw new UsernameNotFoundException("User not found");
-    return user;
+    UserPrincipal principal = userPrincipalCache.get(username);
+    if (principal != null) return principal;
+    principal = userRepository.findPrincipalByEmail(username);
+    if (principal == null) throw new UsernameNotFoundException("User not found");
+    userPrincipalCache.put(principal);
+    return principal;
   }
 }
@@ -0,0 +1,71 @@
+package com.example.cloud_tracker.service;
+
+import com.example.cloud_tracker.model.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of {@link UserPrincipal}s by email, so authenticating a request doesn't query
+ * the users table every time. Anything that changes a user's email or password must {@link
+ * #invalidate} them.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private record Entry(UserPrincipal principal, long expiresAt) {}
+
+  public UserPrincipalCache(
+      @Value("${user.principal-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${user.principal-cache.max-entries:10000}") int maxEntries,
+      VerifiedTokenCache verifiedTokenCache) {
+    this.ttlMillis = ttlSeconds * 1000;
+    this.maxEntries = maxEntries;
+    this.verifiedTokenCache = verifiedTokenCache;
+  }
+
+  public UserPrincipal get(String email) {
+    Entry entry = entries.get(email);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(email, entry);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.principal();
+  }
+
+  public void put(UserPrincipal principal) {
+    long now = System.currentTimeMillis();
+    if (entries.size() >= maxEntries) {
+      entries.values().removeIf(entry -> entry.expiresAt() <= now);
+      if (entries.size() >= maxEntries) return;
+    }
+    entries.put(principal.getEmail(), new Entry(principal, now + ttlMillis));
+  }
+
+  /** Forgets the user, including the principal cached for any of their verified tokens. */
+  public void invalidate(String email) {
+    entries.remove(email);
+    verifiedTokenCache.invalidateUser(email);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CacheMeters.bind(registry, "user_principals", this, hits, misses, cache -> cache.entries.size());
+  }
+}
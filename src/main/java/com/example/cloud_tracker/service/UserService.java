@@ -13,22 +13,30 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserService implements UserDetailsService {
 
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder bCryptPasswordEncoder;
+  private final PasswordHashingService passwordHashingService;
   private final JwtService jwtService;
+  private final UserPrincipalCache userPrincipalCache;
+  private final ProfileImageService profileImageService;
+  private final CurrentUserContext currentUserContext;
 
   public UserService(UserRepository userRepository,
-                     BCryptPasswordEncoder bCryptPasswordEncoder,
-                     JwtService jwtService) {
+                     PasswordHashingService passwordHashingService,
+                     JwtService jwtService,
+                     UserPrincipalCache userPrincipalCache,
+                     ProfileImageService profileImageService,
+                     CurrentUserContext currentUserContext) {
     this.userRepository = userRepository;
-    this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+    this.passwordHashingService = passwordHashingService;
     this.jwtService = jwtService;
+    this.userPrincipalCache = userPrincipalCache;
+    this.profileImageService = profileImageService;
+    this.currentUserContext = currentUserContext;
   }
 
   @Override
@@ -45,46 +53,68 @@ public class UserService implements UserDetailsService {
     }
     userDTO.setEmail(userDTO.getEmail().toLowerCase());
     User user = new User(userDTO);
-    user.setPassword(bCryptPasswordEncoder.encode(userDTO.getPassword()));
+    user.setPassword(passwordHashingService.encode(userDTO.getPassword()));
 
-    return userRepository.save(user);
+    User saved = userRepository.save(user);
+    if (userDTO.getImage() != null) {
+      profileImageService.store(saved.getId(), userDTO.getImage());
+    }
+    return saved;
   }
 
   public JwtResponse login(@NonNull UserDTO userDTO) {
     userDTO.setEmail(userDTO.getEmail().toLowerCase());
     User user = userRepository.findByEmail(userDTO.getEmail());
-    if (user != null && bCryptPasswordEncoder.matches(userDTO.getPassword(), user.getPassword())) {
+    if (user != null && passwordHashingService.matches(userDTO.getPassword(), user.getPassword())) {
+      if (passwordHashingService.needsRehash(user.getPassword())) {
+        user.setPassword(passwordHashingService.encode(userDTO.getPassword()));
+        userRepository.save(user);
+        userPrincipalCache.invalidate(user.getEmail());
+      }
       return new JwtResponse(jwtService.generateToken(user), jwtService.generateRefreshToken(user));
     }
     throw new IllegalArgumentException("Invalid credentials");
   }
 
   public User findUserByEmail(String email) {
-    if (userRepository.findByEmail(email) == null) {
+    User user = userRepository.findByEmail(email);
+    if (user == null) {
       throw new IllegalArgumentException("User not found");
     }
-    return userRepository.findByEmail(email);
+    return user;
   }
 
   public void saveProfileImage(String email, String image) {
     User user = findUserByEmail(email);
-    user.setImage(image);
-    userRepository.save(user);
+    profileImageService.store(user.getId(), image);
   }
 
-  public User getCurrentUser() {
+  public UserDetails getCurrentPrincipal() {
+      UserDetails principal = currentUserContext.getPrincipal();
+      if (principal != null) {
+        return principal;
+      }
       Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
       if (authentication != null) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return userRepository.findByEmail(userDetails.getUsername());
+        return (UserDetails) authentication.getPrincipal();
       }else{
         throw new AuthenticationCredentialsNotFoundException("User not signed in");
       }
   }
 
+  // Loaded at most once per request; later calls reuse the same entity.
+  public User getCurrentUser() {
+      User user = currentUserContext.getUser();
+      if (user == null) {
+        user = userRepository.findByEmail(getCurrentPrincipal().getUsername());
+        currentUserContext.setUser(user);
+      }
+      return user;
+  }
+
   public String getCurrentUserProfilePicture() {
     User currentUser = getCurrentUser();
-    return currentUser.getImage();
+    return profileImageService.getThumbnailDataUrl(currentUser.getId());
   }
 
   public String getCurrentUserName() {
@@ -113,34 +143,39 @@ public class UserService implements UserDetailsService {
 
   public User editProfile(UserProfileDTO userProfileDTO){
     User user = getCurrentUser();
-    if (userRepository.findByEmail(userProfileDTO.getEmail()) != null 
-        && !user.getEmail().equals(userProfileDTO.getEmail())) {
+    if (!user.getEmail().equals(userProfileDTO.getEmail())
+        && userRepository.findByEmail(userProfileDTO.getEmail()) != null) {
         throw new IllegalArgumentException("Email already exists");
     }
+    String previousEmail = user.getEmail();
     user.setName(userProfileDTO.getName());
     user.setEmail(userProfileDTO.getEmail());
     user.setImage(userProfileDTO.getImage());
     userRepository.save(user);
+    profileImageService.store(user.getId(), userProfileDTO.getImage());
+    userPrincipalCache.invalidate(previousEmail);
     return user;
    }
 
    public User editPassword(PasswordUpdateDTO PasswordUpdateDTO){
     User user = getCurrentUser();
-    if(!bCryptPasswordEncoder.matches(PasswordUpdateDTO.getCurrentPassword(),user.getPassword())){
+    if(!passwordHashingService.matches(PasswordUpdateDTO.getCurrentPassword(),user.getPassword())){
       throw new IllegalArgumentException("Invalid current password");
     }
     if(!PasswordUpdateDTO.getNewPassword().equals(PasswordUpdateDTO.getConfirmNewPassword())){
       throw new IllegalArgumentException("Passwords don't match");
     }
-    user.setPassword(bCryptPasswordEncoder.encode(PasswordUpdateDTO.getNewPassword()));
+    user.setPassword(passwordHashingService.encode(PasswordUpdateDTO.getNewPassword()));
     userRepository.save(user);
+    userPrincipalCache.invalidate(user.getEmail());
     return user;
    }
 
 
   public Boolean validateUserToken(String token) {
       try {
-        UserDetails userDetails = getCurrentUser();
+        // The filter already loaded the principal; no need to fetch the whole user again.
+        UserDetails userDetails = getCurrentPrincipal();
         if(userDetails == null)
           return false;
         return jwtService.validateToken(token, userDetails);
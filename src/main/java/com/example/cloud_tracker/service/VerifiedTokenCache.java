@@ -0,0 +1,80 @@
+package com.example.cloud_tracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Principals of bearer tokens that already passed signature, expiry and blacklist checks, keyed by
+ * {@link TokenDigest}. Entries live until the token's own expiry, so a repeat request costs a hash
+ * lookup instead of a signature check and a user query. Invalidating a revoked token is only
+ * housekeeping: a request verifying it concurrently can put it back, so callers must still check
+ * each hit against {@link TokenRevocationService#isRevoked}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+  private final int maxEntries;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private record Entry(UserDetails principal, long expiresAt) {}
+
+  public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public UserDetails get(String digest) {
+    Entry entry = entries.get(digest);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(digest, entry);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.principal();
+  }
+
+  public void put(String digest, UserDetails principal, Date expiration) {
+    if (expiration == null) return;
+    if (entries.size() >= maxEntries) {
+      evictExpired();
+      // Still full of live tokens: skip caching rather than grow without bound.
+      if (entries.size() >= maxEntries) return;
+    }
+    entries.put(digest, new Entry(principal, expiration.getTime()));
+  }
+
+  public void invalidate(String digest) {
+    entries.remove(digest);
+  }
+
+  /** Drops every cached token of a user, e.g. after their profile changed. */
+  public void invalidateUser(String username) {
+    entries.values().removeIf(entry -> username.equals(entry.principal().getUsername()));
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CacheMeters.bind(registry, "verified_tokens", this, hits, misses, VerifiedTokenCache::size);
+  }
+
+  void evictExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiresAt() <= now);
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.amazonaws.services.costexplorer.model.DateInterval;
+import com.amazonaws.services.costexplorer.model.Group;
+import com.amazonaws.services.costexplorer.model.MetricValue;
+import com.amazonaws.services.costexplorer.model.ResultByTime;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Synthetic inputs shared by the benchmarks, seeded so runs are comparable. */
+final class BenchmarkFixtures {
+
+  static final String[] SERVICES = {
+    "EC2-Instances", "Cost Explorer", "Tax", "Secrets Manager", "EC2-Other", "S3",
+    "CloudShell", "Amplify", "Elastic Container Registry Public", "VPC", "CloudWatch",
+    "Key Management Service"
+  };
+
+  private BenchmarkFixtures() {}
+
+  /** A cost explorer CSV export with one row per day, in the layout CSVService expects. */
+  static String costExplorerCsv(int days) {
+    Random random = new Random(42);
+    StringBuilder csv = new StringBuilder("Service");
+    for (String service : SERVICES) csv.append(',').append(service).append("($)");
+    csv.append(",Total costs($)\n");
+
+    csv.append("Service total");
+    for (int i = 0; i < SERVICES.length; i++) csv.append(',').append(random.nextDouble() * 100);
+    csv.append(",0\n");
+
+    LocalDate date = LocalDate.of(2023, 1, 1);
+    for (int day = 0; day < days; day++) {
+      csv.append(date.plusDays(day));
+      for (int i = 0; i < SERVICES.length; i++) {
+        csv.append(',');
+        if (random.nextInt(5) != 0) csv.append(random.nextDouble());
+      }
+      csv.append(",0\n");
+    }
+    return csv.toString();
+  }
+
+  /** Daily cost explorer results grouped by service, as returned by GetCostAndUsage. */
+  static List<ResultByTime> costAndUsageResults(int days) {
+    Random random = new Random(42);
+    LocalDate start = LocalDate.of(2023, 1, 1);
+    List<ResultByTime> results = new ArrayList<>(days);
+    for (int day = 0; day < days; day++) {
+      List<Group> groups = new ArrayList<>(SERVICES.length);
+      for (String service : SERVICES) {
+        MetricValue cost = new MetricValue().withAmount(String.valueOf(random.nextDouble() * 10));
+        groups.add(new Group().withKeys(service).withMetrics(Map.of("BlendedCost", cost)));
+      }
+      results.add(
+          new ResultByTime()
+              .withTimePeriod(
+                  new DateInterval()
+                      .withStart(start.plusDays(day).toString())
+                      .withEnd(start.plusDays(day + 1L).toString()))
+              .withGroups(groups));
+    }
+    return results;
+  }
+
+  /**
+   * A repository stub answering only the given value for every call, without Mockito's
+   * invocation recording skewing allocation numbers.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T stub(Class<T> type, Object answer) {
+    return (T)
+        Proxy.newProxyInstance(
+            type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> answer);
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.service.BlogSearchIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * /blogs/search over synthetic articles of 800 words each, drawn from a 5000-word vocabulary with
+ * a Zipf-like skew so common and rare terms both occur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogSearchIndexBenchmark {
+
+  private static final int VOCABULARY = 5000;
+  private static final int WORDS_PER_BLOG = 800;
+
+  @Param({"1000", "10000"})
+  public int blogs;
+
+  // A very common term, a mid-frequency pair and a rare term.
+  @Param({"w1", "w40 w90", "w4000"})
+  public String query;
+
+  private BlogSearchIndex index;
+
+  @Setup
+  public void setUp() {
+    index = new BlogSearchIndex(null);
+    Random random = new Random(42);
+    for (int id = 1; id <= blogs; id++) {
+      StringBuilder html = new StringBuilder("<p>");
+      for (int i = 0; i < WORDS_PER_BLOG; i++) {
+        // Squaring a uniform draw favours low word numbers.
+        double u = random.nextDouble();
+        html.append('w').append(1 + (int) (u * u * VOCABULARY)).append(' ');
+      }
+      Blog blog = new Blog(id, "Article " + id, html.append("</p>").toString());
+      index.put(blog);
+    }
+  }
+
+  @Benchmark
+  public List<BlogSummaryDTO> search() {
+    return index.search(query, 10);
+  }
+}
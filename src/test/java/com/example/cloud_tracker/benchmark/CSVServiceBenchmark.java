@@ -0,0 +1,79 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.metrics.CsvImportMetrics;
+import com.example.cloud_tracker.model.AWSService;
+import com.example.cloud_tracker.model.MonthlyCost;
+import com.example.cloud_tracker.service.AWSServicesService;
+import com.example.cloud_tracker.service.CSVService;
+import com.example.cloud_tracker.service.MonthlyCostService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Parsing and row mapping cost of a CSV import, with persistence stubbed out. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVServiceBenchmark {
+
+  @Param({"30", "365"})
+  private int days;
+
+  private CSVService csvService;
+  private MockMultipartFile file;
+
+  @Setup
+  public void setUp() {
+    csvService = new CSVService();
+    ReflectionTestUtils.setField(csvService, "awsServicesService", new NoOpAWSServicesService());
+    ReflectionTestUtils.setField(csvService, "monthlyCostService", new NoOpMonthlyCostService());
+    ReflectionTestUtils.setField(
+        csvService, "csvImportMetrics", new CsvImportMetrics(new SimpleMeterRegistry()));
+    byte[] content = BenchmarkFixtures.costExplorerCsv(days).getBytes(StandardCharsets.UTF_8);
+    file = new MockMultipartFile("file", "costs.csv", "text/csv", content);
+  }
+
+  @Benchmark
+  public void processCSV() throws IOException {
+    csvService.processCSV(file);
+  }
+
+  static class NoOpAWSServicesService extends AWSServicesService {
+    @Override
+    public String getAWSServiceByID(int id) {
+      return BenchmarkFixtures.SERVICES[id - 1];
+    }
+
+    @Override
+    public void addNewAWSService(int id, String name, Double cost) {}
+
+    @Override
+    public void addNewAWSServices(List<AWSService> awsServices) {}
+  }
+
+  static class NoOpMonthlyCostService extends MonthlyCostService {
+    @Override
+    public void addNewMonthlyCost(String date, String serviceName, Double cost) {}
+
+    @Override
+    public void addNewMonthlyCosts(List<MonthlyCost> monthlyCosts) {}
+  }
+}
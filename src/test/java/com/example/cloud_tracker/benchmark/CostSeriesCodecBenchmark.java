@@ -0,0 +1,80 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.codec.CostSeriesCodec;
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.metrics.AwsCallMetrics;
+import com.example.cloud_tracker.repository.IAMRoleRepository;
+import com.example.cloud_tracker.service.AwsCallLimiter;
+import com.example.cloud_tracker.service.IAMRoleService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The /role/cost body as JSON against the columnar cost series encoding. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CostSeriesCodecBenchmark {
+
+  // Six months (the /role/cost window) and a full year of daily results.
+  @Param({"183", "365"})
+  private int days;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private List<ServiceCostDTO> costs;
+  private byte[] json;
+  private byte[] costSeries;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    IAMRoleService iamRoleService =
+        new IAMRoleService(
+            BenchmarkFixtures.stub(IAMRoleRepository.class, null),
+            new AwsCallMetrics(new SimpleMeterRegistry()),
+            new AwsCallLimiter(new SimpleMeterRegistry(), 64, 10_000));
+    costs = iamRoleService.toServiceCosts(BenchmarkFixtures.costAndUsageResults(days));
+    json = objectMapper.writeValueAsBytes(costs);
+    costSeries = CostSeriesCodec.encode(costs);
+    System.out.printf(
+        "%n%d rows: JSON %d bytes, cost series %d bytes%n",
+        costs.size(), json.length, costSeries.length);
+  }
+
+  @Benchmark
+  public byte[] writeJson() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(costs);
+  }
+
+  @Benchmark
+  public byte[] writeCostSeries() {
+    return CostSeriesCodec.encode(costs);
+  }
+
+  @Benchmark
+  public List<ServiceCostDTO> readJson() throws IOException {
+    return objectMapper.readValue(json, new TypeReference<>() {});
+  }
+
+  @Benchmark
+  public List<ServiceCostDTO> readCostSeries() {
+    return CostSeriesCodec.decode(costSeries);
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.amazonaws.services.costexplorer.model.ResultByTime;
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.metrics.AwsCallMetrics;
+import com.example.cloud_tracker.repository.IAMRoleRepository;
+import com.example.cloud_tracker.service.CostAggregation;
+import com.example.cloud_tracker.service.AwsCallLimiter;
+import com.example.cloud_tracker.service.IAMRoleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Mapping of cost explorer results into the DTOs returned by /role/cost, and their totals. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IAMRoleServiceBenchmark {
+
+  // Six months (the /role/cost window) and a full year of daily results.
+  @Param({"183", "365"})
+  private int days;
+
+  private IAMRoleService iamRoleService;
+  private List<ResultByTime> results;
+  private List<ServiceCostDTO> costs;
+
+  @Setup
+  public void setUp() {
+    iamRoleService =
+        new IAMRoleService(
+            BenchmarkFixtures.stub(IAMRoleRepository.class, null),
+            new AwsCallMetrics(new SimpleMeterRegistry()),
+            new AwsCallLimiter(new SimpleMeterRegistry(), 64, 10_000));
+    results = BenchmarkFixtures.costAndUsageResults(days);
+    costs = iamRoleService.toServiceCosts(results);
+  }
+
+  @Benchmark
+  public List<ServiceCostDTO> toServiceCosts() {
+    return iamRoleService.toServiceCosts(results);
+  }
+
+  @Benchmark
+  public List<ServiceCostDTO> totalsByService() {
+    return CostAggregation.aggregate(costs, CostAggregation.GroupBy.SERVICE, 5, null, null);
+  }
+
+  @Benchmark
+  public List<ServiceCostDTO> totalsByWeek() {
+    return CostAggregation.aggregate(costs, CostAggregation.GroupBy.WEEK, null, null, null);
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.VerifiedToken;
+import com.example.cloud_tracker.repository.BlackListedTokensRepository;
+import com.example.cloud_tracker.service.JwtService;
+import com.example.cloud_tracker.service.TokenRevocationService;
+import com.example.cloud_tracker.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Per-request token verification cost, including the in-memory revocation check. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+  private JwtService jwtService;
+  private User user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(
+        jwtService,
+        "tokenRevocationService",
+        new TokenRevocationService(
+            BenchmarkFixtures.stub(BlackListedTokensRepository.class, null),
+            new VerifiedTokenCache(1),
+            null,
+            1 << 20));
+    user = new User(1, "bench@example.com", "password", "bench", null, null);
+    token = jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public Boolean validateToken() {
+    return jwtService.validateToken(token, user);
+  }
+
+  @Benchmark
+  public VerifiedToken verifyToken() {
+    return jwtService.verifyToken(token);
+  }
+
+  @Benchmark
+  public Claims extractAllClaims() {
+    return jwtService.extractAllClaims(token);
+  }
+}
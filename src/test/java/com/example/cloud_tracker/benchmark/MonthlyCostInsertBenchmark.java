@@ -0,0 +1,156 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.model.MonthlyCost;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows per second of a CSV import's monthly cost inserts, into an in-memory H2 database: the old
+ * way (identity ids, one transaction and statement per row) against the new one (pooled sequence
+ * ids, one transaction, JDBC batches). Over a network to MySQL every statement saved is also a
+ * round trip saved, so the gap there is wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonthlyCostInsertBenchmark {
+
+  // What the CSV import saves per transaction.
+  private static final int ROWS = 1000;
+
+  private SessionFactory identityPerRow;
+  private SessionFactory sequenceBatched;
+
+  /** MonthlyCost as it was mapped before. */
+  @Entity
+  @Table(name = "identity_monthly_cost")
+  public static class IdentityMonthlyCost {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    private String date;
+    private String service;
+    private Double cost;
+
+    public IdentityMonthlyCost() {}
+
+    IdentityMonthlyCost(String date, String service, Double cost) {
+      this.date = date;
+      this.service = service;
+      this.cost = cost;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    identityPerRow = sessionFactory("identity", IdentityMonthlyCost.class, new Configuration());
+    sequenceBatched =
+        sessionFactory(
+            "sequence",
+            MonthlyCost.class,
+            new Configuration()
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo"));
+  }
+
+  @TearDown(Level.Iteration)
+  public void truncate() {
+    identityPerRow.inTransaction(session -> deleteAll(session, "identity_monthly_cost"));
+    sequenceBatched.inTransaction(session -> deleteAll(session, "\"monthly-cost\""));
+  }
+
+  @TearDown
+  public void tearDown() {
+    identityPerRow.close();
+    sequenceBatched.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void identityRowByRow() {
+    try (Session session = identityPerRow.openSession()) {
+      for (int i = 0; i < ROWS; i++) {
+        IdentityMonthlyCost row = new IdentityMonthlyCost(date(i), service(i), i / 7.0);
+        session.beginTransaction();
+        session.persist(row);
+        session.getTransaction().commit();
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void sequenceBatched() {
+    try (Session session = sequenceBatched.openSession()) {
+      session.beginTransaction();
+      for (int i = 0; i < ROWS; i++) {
+        session.persist(new MonthlyCost(date(i), service(i), i / 7.0));
+      }
+      session.getTransaction().commit();
+    }
+  }
+
+  private static void deleteAll(Session session, String table) {
+    session.createNativeMutationQuery("delete from " + table).executeUpdate();
+  }
+
+  private static String date(int row) {
+    return "2023-01-" + (10 + row / BenchmarkFixtures.SERVICES.length % 20);
+  }
+
+  private static String service(int row) {
+    return BenchmarkFixtures.SERVICES[row % BenchmarkFixtures.SERVICES.length];
+  }
+
+  // Hibernate 6.4's native bootstrap only picks a connection provider from the deprecated
+  // hibernate.connection.* settings, not the jakarta.persistence.jdbc.* ones, so the connections
+  // are handed to it from a DataSource instead.
+  private static SessionFactory sessionFactory(
+      String database, Class<?> entity, Configuration configuration) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+    dataSource.setUser("sa");
+    DatasourceConnectionProviderImpl connections = new DatasourceConnectionProviderImpl();
+    connections.setDataSource(dataSource);
+    connections.configure(Map.of());
+    configuration
+        .addAnnotatedClass(entity)
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+    return configuration.buildSessionFactory(
+        new StandardServiceRegistryBuilder()
+            .applySettings(configuration.getProperties())
+            .addService(ConnectionProvider.class, connections)
+            .build());
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.cloud_tracker.benchmark;
+
+import com.example.cloud_tracker.configuration.PublicRoutes;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Public-route lookup done by JwtFilter and the security config on every request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicRoutesBenchmark {
+
+  private final PublicRoutes publicRoutes = new PublicRoutes();
+
+  @Param({"/role/cost", "/blogs/blog/42", "/v3/api-docs/swagger-config"})
+  public String path;
+
+  @Benchmark
+  public boolean matches() {
+    return publicRoutes.matches(path);
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.cloud_tracker.build;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+public class StaticResourcePrecompressorTest {
+
+  private static final String JQUERY = "META-INF/resources/webjars/jquery/3.6.4/jquery.min.js";
+
+  private final PathMatchingResourcePatternResolver resolver =
+      new PathMatchingResourcePatternResolver();
+
+  @Test
+  void webjarResourcesGetAGzipVariantWithTheSameContent(@TempDir Path output) throws IOException {
+    int written = StaticResourcePrecompressor.precompress(resolver, output);
+
+    assertTrue(written > 0);
+    Path variant = output.resolve(JQUERY + ".gz");
+    assertTrue(Files.isRegularFile(variant));
+    byte[] original;
+    try (InputStream in = resolver.getResource("classpath:" + JQUERY).getInputStream()) {
+      original = in.readAllBytes();
+    }
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(variant))) {
+      assertArrayEquals(original, in.readAllBytes());
+    }
+    assertTrue(Files.size(variant) < original.length / 2);
+  }
+
+  @Test
+  void smallAndOutsideResourcesAreLeftAlone(@TempDir Path output) throws IOException {
+    StaticResourcePrecompressor.precompress(resolver, output);
+
+    // Under a kilobyte, not worth a variant.
+    Resource index = resolver.getResource("classpath:static/index.html");
+    assertTrue(index.contentLength() < 1024);
+    // Files from a class path directory other than the output one are not written elsewhere.
+    assertFalse(Files.exists(output.resolve("static")));
+  }
+}
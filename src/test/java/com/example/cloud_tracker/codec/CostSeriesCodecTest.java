@@ -0,0 +1,115 @@
+package com.example.cloud_tracker.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.controller.MockCostsService;
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+public class CostSeriesCodecTest {
+
+  @Test
+  void decodesWhatItEncodes() {
+    List<ServiceCostDTO> costs =
+        List.of(
+            new ServiceCostDTO("2024-01-30", "AmazonEC2", 12.5),
+            new ServiceCostDTO("2024-01-30", "AmazonS3", 0.0),
+            new ServiceCostDTO("2024-01-31", "AmazonEC2", 1e-9),
+            new ServiceCostDTO("2024-02-01", "AmazonRDS", null),
+            // Out of order rows are a negative delta.
+            new ServiceCostDTO("2023-12-31", "AmazonS3", -3.25));
+
+    assertEquals(costs, CostSeriesCodec.decode(CostSeriesCodec.encode(costs)));
+  }
+
+  @Test
+  void totalsOverAllServicesRoundTrip() {
+    List<ServiceCostDTO> totals =
+        List.of(
+            new ServiceCostDTO("2024-01-01", null, 7.0),
+            new ServiceCostDTO("2024-02-01", null, 24.5));
+
+    assertEquals(totals, CostSeriesCodec.decode(CostSeriesCodec.encode(totals)));
+  }
+
+  @Test
+  void emptySeriesRoundTrips() {
+    assertEquals(List.of(), CostSeriesCodec.decode(CostSeriesCodec.encode(List.of())));
+  }
+
+  @Test
+  void sixMonthsOfDailyCostsAreAFractionOfTheJson() throws IOException {
+    List<ServiceCostDTO> costs = sixMonthsOfDailyCosts(40);
+    byte[] json = new ObjectMapper().writeValueAsBytes(costs);
+    byte[] columnar = CostSeriesCodec.encode(costs);
+
+    assertEquals(costs, CostSeriesCodec.decode(columnar));
+    assertTrue(columnar.length * 5 < json.length, columnar.length + " vs " + json.length);
+    // Still smaller once both are gzipped, as they are on the wire.
+    assertTrue(gzip(columnar).length < gzip(json).length);
+  }
+
+  @Test
+  void mockCostsRoundTrip() {
+    List<ServiceCostDTO> costs = new MockCostsService().generateRandomMockBlendedCost();
+
+    assertEquals(costs, CostSeriesCodec.decode(CostSeriesCodec.encode(costs)));
+  }
+
+  @Test
+  void rejectsDatesThatAreNotIsoDates() {
+    List<ServiceCostDTO> costs = List.of(new ServiceCostDTO("30/01/2024", "AmazonEC2", 1.0));
+
+    assertThrows(IllegalArgumentException.class, () -> CostSeriesCodec.encode(costs));
+  }
+
+  @Test
+  void rejectsRowsWithoutADate() {
+    List<ServiceCostDTO> undatedFirst = List.of(new ServiceCostDTO(null, "AmazonEC2", 1.0));
+    List<ServiceCostDTO> undatedLater =
+        List.of(
+            new ServiceCostDTO("2024-01-30", "AmazonEC2", 1.0),
+            new ServiceCostDTO(null, "AmazonS3", 2.0));
+
+    assertThrows(IllegalArgumentException.class, () -> CostSeriesCodec.encode(undatedFirst));
+    assertThrows(IllegalArgumentException.class, () -> CostSeriesCodec.encode(undatedLater));
+  }
+
+  @Test
+  void rejectsInconsistentDocuments() {
+    byte[] encoded = CostSeriesCodec.encode(List.of(new ServiceCostDTO("2024-01-30", "A", 1.0)));
+    byte[] truncated = Arrays.copyOf(encoded, encoded.length - 4);
+
+    assertThrows(UncheckedIOException.class, () -> CostSeriesCodec.decode(truncated));
+    assertThrows(UncheckedIOException.class, () -> CostSeriesCodec.decode(new byte[] {(byte) 0xa0}));
+  }
+
+  private static List<ServiceCostDTO> sixMonthsOfDailyCosts(int services) {
+    List<ServiceCostDTO> costs = new ArrayList<>();
+    LocalDate start = LocalDate.of(2024, 1, 1);
+    for (int day = 0; day < 183; day++) {
+      String date = start.plusDays(day).toString();
+      for (int service = 0; service < services; service++) {
+        costs.add(new ServiceCostDTO(date, "Amazon Service " + service, (day * 31 + service) / 7.0));
+      }
+    }
+    return costs;
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.cloud_tracker.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.dto.UserDTO;
+import com.example.cloud_tracker.service.JwtService;
+import com.example.cloud_tracker.service.UserService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CostSeriesNegotiationTest {
+
+  private static final String COSTS = "/role/cost?arn=arn:aws:iam::123456789012:role/MockRole";
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private UserService userService;
+  @Autowired private JwtService jwtService;
+  @Autowired private ObjectMapper objectMapper;
+
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    SecurityContextHolder.clearContext();
+    String email = "cost-series-" + System.nanoTime() + "@test.com";
+    token = jwtService.generateToken(userService.register(new UserDTO(email, "password", "name")));
+  }
+
+  @Test
+  void costSeriesIsServedOnlyWhenAskedFor() throws Exception {
+    MockHttpServletResponse json = costs(MediaType.ALL_VALUE);
+    MockHttpServletResponse columnar = costs(CostSeriesCodec.MEDIA_TYPE);
+
+    assertTrue(json.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+    assertEquals(CostSeriesCodec.MEDIA_TYPE, columnar.getContentType());
+    List<ServiceCostDTO> fromJson =
+        objectMapper.readValue(json.getContentAsByteArray(), new TypeReference<>() {});
+    assertEquals(fromJson, CostSeriesCodec.decode(columnar.getContentAsByteArray()));
+    assertTrue(columnar.getContentAsByteArray().length * 5 < json.getContentAsByteArray().length);
+  }
+
+  @Test
+  void otherListsAreNotOfferedAsCostSeries() throws Exception {
+    mockMvc
+        .perform(
+            get("/role/all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(CostSeriesCodec.MEDIA_TYPE))
+        .andExpect(status().isNotAcceptable());
+  }
+
+  private MockHttpServletResponse costs(String accept) throws Exception {
+    return mockMvc
+        .perform(get(COSTS).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).accept(accept))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse();
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+public class DataSourceRoutingTest {
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired
+  @Qualifier("oltpDataSource")
+  private HikariDataSource oltp;
+
+  @Autowired
+  @Qualifier("ingestDataSource")
+  private HikariDataSource ingest;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  void poolsAreSizedFromTheirConcurrency() {
+    assertEquals("oltp", oltp.getPoolName());
+    assertEquals(10, oltp.getMaximumPoolSize());
+    assertEquals(10, oltp.getMinimumIdle());
+    assertEquals(20_000, oltp.getLeakDetectionThreshold());
+    assertEquals("ingest", ingest.getPoolName());
+    assertEquals(2, ingest.getMaximumPoolSize());
+    assertEquals(0, ingest.getMinimumIdle());
+    assertEquals(300_000, ingest.getLeakDetectionThreshold());
+  }
+
+  @Test
+  void connectionsComeFromThePoolOfTheCurrentRoute() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      assertEquals(1, oltp.getHikariPoolMXBean().getActiveConnections());
+    }
+
+    try (DataSourceRoute.Scope ingestScope = DataSourceRoute.INGEST.use()) {
+      assertEquals(DataSourceRoute.INGEST, DataSourceRoute.current());
+      try (Connection connection = dataSource.getConnection()) {
+        assertEquals(1, ingest.getHikariPoolMXBean().getActiveConnections());
+        assertEquals(0, oltp.getHikariPoolMXBean().getActiveConnections());
+      }
+      try (DataSourceRoute.Scope nested = DataSourceRoute.OLTP.use()) {
+        assertEquals(DataSourceRoute.OLTP, DataSourceRoute.current());
+      }
+      assertEquals(DataSourceRoute.INGEST, DataSourceRoute.current());
+    }
+    assertEquals(DataSourceRoute.OLTP, DataSourceRoute.current());
+  }
+
+  @Test
+  void bothPoolsReportMetrics() throws SQLException {
+    try (DataSourceRoute.Scope ingestScope = DataSourceRoute.INGEST.use();
+        Connection connection = dataSource.getConnection()) {
+      assertNotNull(connection);
+    }
+
+    for (String pool : new String[] {"oltp", "ingest"}) {
+      assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer());
+      assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", pool).gauge());
+      assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", pool).gauge());
+    }
+    assertTrue(
+        meterRegistry.find("hikaricp.connections.acquire").tag("pool", "ingest").timer().count()
+            > 0);
+  }
+}
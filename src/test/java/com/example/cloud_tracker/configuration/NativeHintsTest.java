@@ -0,0 +1,64 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.dto.BlogDTO;
+import com.example.cloud_tracker.model.MonthlyCost;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+public class NativeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+  private final ClassLoader classLoader = getClass().getClassLoader();
+
+  NativeHintsTest() {
+    new NativeHints().registerHints(hints, classLoader);
+  }
+
+  @Test
+  void entitiesAndBodiesAreReflectable() throws NoSuchMethodException {
+    assertTrue(RuntimeHintsPredicates.reflection().onField(MonthlyCost.class, "cost").test(hints));
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onConstructor(MonthlyCost.class.getDeclaredConstructor())
+            .test(hints));
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onMethod(BlogDTO.class.getMethod("getTitle"))
+            .test(hints));
+  }
+
+  @Test
+  void everyTypeRegisteredByNameExists() {
+    // A renamed class in a dependency upgrade would otherwise only surface in the native binary.
+    hints
+        .reflection()
+        .typeHints()
+        .map(hint -> hint.getType().getName())
+        .forEach(name -> assertTrue(ClassUtils.isPresent(name, classLoader), name));
+    hints
+        .proxies()
+        .jdkProxyHints()
+        .flatMap(hint -> hint.getProxiedInterfaces().stream())
+        .map(TypeReference::getName)
+        .forEach(name -> assertTrue(ClassUtils.isPresent(name, classLoader), name));
+  }
+
+  @Test
+  void bundledResourcesAreIncluded() {
+    for (String resource :
+        new String[] {
+          "com/amazonaws/partitions/endpoints.json",
+          "com/amazonaws/internal/config/awssdk_config_default.json",
+          "META-INF/services/io.jsonwebtoken.io.Serializer",
+          "META-INF/services/io.jsonwebtoken.CompressionCodec"
+        }) {
+      assertNotNull(classLoader.getResource(resource), resource);
+      assertTrue(RuntimeHintsPredicates.resource().forResource(resource).test(hints), resource);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class PublicRoutesTest {
+
+  private final PublicRoutes publicRoutes = new PublicRoutes();
+
+  @Test
+  void exactRoutesMatchOnlyThemselves() {
+    assertTrue(publicRoutes.matches("/"));
+    assertTrue(publicRoutes.matches("/signin"));
+    assertTrue(publicRoutes.matches("/error"));
+    assertTrue(publicRoutes.matches("/swagger-ui.html"));
+
+    assertFalse(publicRoutes.matches("/signin/extra"));
+    assertFalse(publicRoutes.matches("/signinx"));
+    assertFalse(publicRoutes.matches("/sign"));
+    assertFalse(publicRoutes.matches(""));
+  }
+
+  @Test
+  void subtreeRoutesMatchTheirBaseAndEverythingBelow() {
+    assertTrue(publicRoutes.matches("/blogs"));
+    assertTrue(publicRoutes.matches("/blogs/"));
+    assertTrue(publicRoutes.matches("/blogs/blog/12"));
+    assertTrue(publicRoutes.matches("/v3/api-docs"));
+    assertTrue(publicRoutes.matches("/v3/api-docs/swagger-config"));
+
+    assertFalse(publicRoutes.matches("/blogsearch"));
+    assertFalse(publicRoutes.matches("/v3/api"));
+  }
+
+  @Test
+  void authenticatedRoutesAreNotPublic() {
+    for (String path : List.of("/me/profile", "/role/cost", "/validate-token", "/logout", "/test")) {
+      assertFalse(publicRoutes.matches(path), path);
+    }
+  }
+
+  @Test
+  void matchesRequestsByUri() {
+    assertTrue(publicRoutes.matches(new MockHttpServletRequest("GET", "/webjars/jquery.js")));
+    assertFalse(publicRoutes.matches(new MockHttpServletRequest("GET", "/cost-info/months")));
+  }
+
+  @Test
+  void rejectsUnsupportedPatterns() {
+    assertThrows(IllegalArgumentException.class, () -> new PublicRoutes(List.of("/a/*/b")));
+    assertThrows(IllegalArgumentException.class, () -> new PublicRoutes(List.of("relative")));
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.configuration.ReplicaDataSource.Replica;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReplicaDataSourceTest {
+
+  private final Connection primaryConnection = mock(Connection.class);
+  private final Connection firstConnection = mock(Connection.class);
+  private final Connection secondConnection = mock(Connection.class);
+  private final DataSource primary = mock(DataSource.class);
+  private final DataSource first = mock(DataSource.class);
+  private final DataSource second = mock(DataSource.class);
+  private Replica firstReplica;
+  private Replica secondReplica;
+  private ReplicaDataSource replicaDataSource;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    when(primary.getConnection()).thenReturn(primaryConnection);
+    when(first.getConnection()).thenReturn(firstConnection);
+    when(second.getConnection()).thenReturn(secondConnection);
+    firstReplica = new Replica("replica-0", first);
+    secondReplica = new Replica("replica-1", second);
+    replicaDataSource =
+        new ReplicaDataSource(
+            List.of(firstReplica, secondReplica), primary, Duration.ofSeconds(5));
+    registry = new SimpleMeterRegistry();
+    replicaDataSource.bindTo(registry);
+  }
+
+  @Test
+  void readsTakeTurnsAcrossCurrentReplicas() throws SQLException {
+    firstReplica.setLagMillis(10);
+    secondReplica.setLagMillis(4_000);
+
+    assertSame(firstConnection, replicaDataSource.getConnection());
+    assertSame(secondConnection, replicaDataSource.getConnection());
+    assertSame(firstConnection, replicaDataSource.getConnection());
+    verifyNoInteractions(primary);
+  }
+
+  @Test
+  void replicasBehindOrUncheckedAreSkipped() throws SQLException {
+    firstReplica.setLagMillis(6_000);
+
+    assertSame(primaryConnection, replicaDataSource.getConnection());
+
+    secondReplica.setLagMillis(0);
+    assertSame(secondConnection, replicaDataSource.getConnection());
+    assertSame(secondConnection, replicaDataSource.getConnection());
+    assertEquals(1, registry.get("db.replica.fallbacks").functionCounter().count());
+  }
+
+  @Test
+  void unreachableReplicaFallsBackAndLeavesRotation() throws SQLException {
+    firstReplica.setLagMillis(0);
+    when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+    assertSame(primaryConnection, replicaDataSource.getConnection());
+    assertEquals(Replica.UNKNOWN_LAG, firstReplica.getLagMillis());
+    assertFalse(replicaDataSource.isUsable(firstReplica));
+    assertEquals(1, registry.get("db.replica.fallbacks").functionCounter().count());
+  }
+
+  @Test
+  void explicitCredentialsArePassedToTheChosenTarget() throws SQLException {
+    when(first.getConnection("reader", "secret")).thenReturn(firstConnection);
+    when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+
+    assertSame(primaryConnection, replicaDataSource.getConnection("reader", "secret"));
+    firstReplica.setLagMillis(0);
+    assertSame(firstConnection, replicaDataSource.getConnection("reader", "secret"));
+  }
+
+  @Test
+  void withoutReplicasReadsGoToThePrimary() throws SQLException {
+    ReplicaDataSource none = new ReplicaDataSource(List.of(), primary, Duration.ofSeconds(5));
+
+    assertSame(primaryConnection, none.getConnection());
+  }
+
+  @Test
+  void reportsLagPerReplica() {
+    firstReplica.setLagMillis(1_500);
+
+    assertEquals(
+        1.5, registry.get("db.replica.lag").tag("replica", "replica-0").gauge().value());
+    assertTrue(
+        Double.isNaN(registry.get("db.replica.lag").tag("replica", "replica-1").gauge().value()));
+  }
+}
@@ -0,0 +1,149 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.model.AWSService;
+import com.example.cloud_tracker.repository.AWSServiceRepository;
+import com.example.cloud_tracker.service.AWSServicesService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** A second in-memory H2 database stands in for a replica; nothing replicates into it. */
+@SpringBootTest(
+    properties = {
+      "db.replica.instances[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+      "db.replica.max-lag=5s",
+      // Checked by the tests only.
+      "db.replica.heartbeat-interval-ms=3600000"
+    })
+public class ReplicaRoutingTest {
+
+  static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+  @Autowired private AWSServicesService awsServicesService;
+  @Autowired private AWSServiceRepository awsServiceRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private ReplicaLagMonitor replicaLagMonitor;
+  @Autowired private ReplicaDataSource replicaDataSource;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired
+  @Qualifier("oltpDataSource")
+  private DataSource oltp;
+
+  private JdbcTemplate primary;
+  private JdbcTemplate replica;
+
+  @BeforeEach
+  void setUp() {
+    primary = new JdbcTemplate(oltp);
+    replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+    replica.execute(ReplicaLagMonitor.CREATE_TABLE);
+    replica.execute(
+        "create table if not exists AWS_services"
+            + " (id int primary key, name varchar(255), total_cost double not null)");
+    replica.update("insert into AWS_services (id, name, total_cost) values (9001, 'replica', 1)");
+    primary.update("insert into AWS_services (id, name, total_cost) values (9002, 'primary', 2)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    primary.update("delete from AWS_services where id >= 9000");
+    replica.execute("drop table AWS_services");
+    replica.execute("drop table replica_heartbeat");
+  }
+
+  @Test
+  void labelledReadOnlyTransactionsRunOnACurrentReplica() {
+    replicate(System.currentTimeMillis());
+    replicaLagMonitor.check();
+
+    assertEquals(List.of("replica"), names(awsServicesService.getServices()));
+    assertTrue(replicaDataSource.getReplicas().get(0).getLagMillis() < 5_000);
+  }
+
+  @Test
+  void unlabelledReadOnlyTransactionsRunOnThePrimary() {
+    replicate(System.currentTimeMillis());
+    replicaLagMonitor.check();
+    TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+
+    // Spring Data's finders are read-only transactions without the label.
+    assertTrue(names(awsServiceRepository.findAll()).contains("primary"));
+    assertTrue(names(readOnly.execute(status -> awsServiceRepository.findAll())).contains("primary"));
+  }
+
+  @Test
+  void writesRunOnThePrimary() {
+    replicate(System.currentTimeMillis());
+    replicaLagMonitor.check();
+
+    awsServicesService.addNewAWSService(9003, "written", 3.0);
+
+    assertEquals(1, count(primary, 9003));
+    assertEquals(0, count(replica, 9003));
+  }
+
+  @Test
+  void laggingReplicaIsSkipped() {
+    double fallbacks = fallbacks();
+    replicate(System.currentTimeMillis() - 60_000);
+    replicaLagMonitor.check();
+
+    assertTrue(names(awsServicesService.getServices()).contains("primary"));
+    assertTrue(fallbacks() > fallbacks);
+    assertTrue(
+        meterRegistry.get("db.replica.lag").tag("replica", "replica-0").gauge().value() >= 60);
+  }
+
+  @Test
+  void replicaWithoutHeartbeatIsSkipped() {
+    replicaLagMonitor.check();
+
+    assertEquals(
+        ReplicaDataSource.Replica.UNKNOWN_LAG,
+        replicaDataSource.getReplicas().get(0).getLagMillis());
+    assertTrue(names(awsServicesService.getServices()).contains("primary"));
+  }
+
+  @Test
+  void ingestReadsStayOnTheIngestPool() {
+    replicate(System.currentTimeMillis());
+    replicaLagMonitor.check();
+
+    try (DataSourceRoute.Scope ingest = DataSourceRoute.INGEST.use()) {
+      assertTrue(names(awsServicesService.getServices()).contains("primary"));
+    }
+  }
+
+  // What replication would do: copy the primary's heartbeat, as of the given time.
+  private void replicate(long beatAt) {
+    replica.update("delete from replica_heartbeat");
+    replica.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", beatAt);
+  }
+
+  private double fallbacks() {
+    return meterRegistry.get("db.replica.fallbacks").functionCounter().count();
+  }
+
+  private static int count(JdbcTemplate jdbcTemplate, int id) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from AWS_services where id = ?", Integer.class, id);
+  }
+
+  private static List<String> names(List<AWSService> services) {
+    return services.stream().map(AWSService::getName).toList();
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.cloud_tracker.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+// The test application.properties shadows the main one, so the settings under test are repeated.
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "server.compression.enabled=true",
+      "server.compression.mime-types=application/json,text/javascript,application/javascript",
+      "server.compression.min-response-size=1KB",
+      "spring.web.resources.chain.enabled=true",
+      "spring.web.resources.chain.compressed=true",
+      "spring.web.resources.cache.cachecontrol.max-age=1h"
+    })
+public class ResponseCompressionTest {
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @LocalServerPort private int port;
+
+  @Test
+  void largeJsonIsCompressedWhenTheClientAcceptsGzip() throws Exception {
+    HttpResponse<byte[]> gzipped = get("/v3/api-docs", "gzip");
+    HttpResponse<byte[]> plain = get("/v3/api-docs", null);
+
+    assertEquals(200, gzipped.statusCode());
+    assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+    String vary = String.join(",", gzipped.headers().allValues("Vary"));
+    assertTrue(vary.toLowerCase().contains("accept-encoding"));
+    assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+    assertEquals(new String(plain.body()), new String(gunzip(gzipped.body())));
+  }
+
+  @Test
+  void webjarsAreServedFromTheirPrecompressedVariant() throws Exception {
+    HttpResponse<byte[]> gzipped = get("/webjars/jquery/3.6.4/jquery.min.js", "gzip, deflate");
+    HttpResponse<byte[]> plain = get("/webjars/jquery/3.6.4/jquery.min.js", null);
+
+    assertEquals(200, gzipped.statusCode());
+    assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+    assertTrue(gzipped.headers().firstValue("Cache-Control").orElse("").contains("max-age=3600"));
+    assertArrayEquals(plain.body(), gunzip(gzipped.body()));
+  }
+
+  private HttpResponse<byte[]> get(String path, String acceptEncoding)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    if (acceptEncoding != null) request.header("Accept-Encoding", acceptEncoding);
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private static byte[] gunzip(byte[] body) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return in.readAllBytes();
+    }
+  }
+}
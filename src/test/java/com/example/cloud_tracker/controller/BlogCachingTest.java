@@ -0,0 +1,105 @@
+package com.example.cloud_tracker.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BlogCachingTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void revalidationIsNotModifiedUntilABlogChanges() throws Exception {
+    writeBlog("Caching", "<p>" + "Cached body. ".repeat(50) + "</p>");
+
+    String etag =
+        mockMvc
+            .perform(get("/blogs").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    assertThat(etag).startsWith("W/\"");
+
+    mockMvc
+        .perform(get("/blogs").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"));
+
+    writeBlog("Another", "<p>New</p>");
+
+    mockMvc
+        .perform(get("/blogs").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(jsonPath("$.content[0].title").value("Another"))
+        .andExpect(jsonPath("$.page").value(0))
+        .andExpect(jsonPath("$.size").value(20))
+        .andExpect(jsonPath("$.total").isNumber())
+        .andExpect(jsonPath("$.pageable").doesNotExist());
+  }
+
+  @Test
+  void editOfAnOlderVersionIsAConflict() throws Exception {
+    writeBlog("Versioned", "<p>First</p>");
+    int id =
+        JsonPath.read(
+            mockMvc.perform(get("/blogs")).andReturn().getResponse().getContentAsString(),
+            "$.content[0].id");
+    String etag =
+        mockMvc
+            .perform(get("/blogs/blog/" + id))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    String edit = "{\"title\":\"Versioned\",\"htmlContent\":\"<p>Second</p>\"}";
+    mockMvc
+        .perform(
+            put("/blogs/blog/" + id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(edit))
+        .andExpect(status().isOk());
+    // A second editor still holding the first version.
+    mockMvc
+        .perform(
+            put("/blogs/blog/" + id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(edit))
+        .andExpect(status().isConflict());
+    mockMvc
+        .perform(get("/blogs/blog/" + id))
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+  }
+
+  private void writeBlog(String title, String html) throws Exception {
+    mockMvc
+        .perform(
+            post("/blogs/blog")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"htmlContent\":\"" + html + "\"}"))
+        .andExpect(status().isOk());
+  }
+}
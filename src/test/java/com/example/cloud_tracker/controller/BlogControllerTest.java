@@ -1,21 +1,26 @@
 package com.example.cloud_tracker.controller;
 
 import com.example.cloud_tracker.dto.BlogDTO;
-import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.service.BlogResponseCache;
 import com.example.cloud_tracker.service.BlogService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class BlogControllerTest {
@@ -29,6 +34,11 @@ class BlogControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(blogController, "maxAge", Duration.ofSeconds(60));
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest());
     }
 
     @Test
@@ -48,41 +58,100 @@ class BlogControllerTest {
 
     @Test
     void getBlogsTest() {
-        List<Blog> expectedBlogs = new ArrayList<>();
-        expectedBlogs.add(new Blog(1, "Title", "<html><body>Content</body></html>"));
+        BlogResponseCache.Rendered rendered =
+                new BlogResponseCache.Rendered("[]".getBytes(), new byte[] {1}, "W/\"abc\"");
 
-        when(blogService.getBlogs()).thenReturn(expectedBlogs);
+        when(blogService.getRenderedBlogSummaries(0, 20)).thenReturn(rendered);
 
-        List<Blog> actualBlogs = blogController.getBlogs();
+        ResponseEntity<byte[]> response = blogController.getBlogs(0, 20, request());
 
-        assertEquals(expectedBlogs, actualBlogs);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals("[]".getBytes(), response.getBody());
+        assertEquals("W/\"abc\"", response.getHeaders().getETag());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
     }
 
     @Test
     void getBlogByIdTest() {
         int blogId = 1;
-        Blog expectedBlog = new Blog(blogId, "Title", "<html><body>Content</body></html>");
+        BlogResponseCache.Rendered rendered =
+                new BlogResponseCache.Rendered("{}".getBytes(), new byte[] {1}, "W/\"abc\"");
 
-        when(blogService.getBlogById(blogId)).thenReturn(Optional.of(expectedBlog));
+        when(blogService.getRenderedBlog(blogId)).thenReturn(rendered);
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
 
-        ResponseEntity<Blog> expectedResponse = ResponseEntity.ok(expectedBlog);
+        ResponseEntity<byte[]> response =
+                blogController.getBlogById(blogId, new ServletWebRequest(gzipRequest));
 
-        ResponseEntity<Blog> actualResponse = blogController.getBlogById(blogId);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(new byte[] {1}, response.getBody());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        assertEquals("W/\"abc\"", response.getHeaders().getETag());
+    }
 
-        assertEquals(expectedResponse, actualResponse);
+    @Test
+    void gzippedBlogGetsItsOwnStrongETag() {
+        BlogResponseCache.Rendered rendered =
+                new BlogResponseCache.Rendered("{}".getBytes(), new byte[] {1}, "\"7\"");
+        when(blogService.getRenderedBlog(1)).thenReturn(rendered);
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        assertEquals("\"7-gzip\"",
+                blogController.getBlogById(1, new ServletWebRequest(gzipRequest)).getHeaders().getETag());
+        assertEquals("\"7\"", blogController.getBlogById(1, request()).getHeaders().getETag());
+    }
+
+    @Test
+    void searchBlogsTest() {
+        List<BlogSummaryDTO> hits =
+                List.of(new BlogSummaryDTO(1, "Title", Instant.EPOCH, "Content"));
+
+        when(blogService.search("title", 10)).thenReturn(hits);
+
+        assertEquals(hits, blogController.searchBlogs("title", 10));
+    }
+
+    @Test
+    void acceptsGzipOnlyWithANonZeroQuality() {
+        assertTrue(BlogController.acceptsGzip("gzip"));
+        assertTrue(BlogController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(BlogController.acceptsGzip("identity, *;q=0.1"));
+        assertFalse(BlogController.acceptsGzip(null));
+        assertFalse(BlogController.acceptsGzip("gzip;q=0"));
+        assertFalse(BlogController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(BlogController.acceptsGzip("x-gzip"));
+        assertFalse(BlogController.acceptsGzip("deflate, br"));
+        assertFalse(BlogController.acceptsGzip("*;q=0"));
+    }
+
+    @Test
+    void gzipRefusedWithZeroQualityGetsThePlainBody() {
+        byte[] json = "{}".getBytes();
+        when(blogService.getRenderedBlog(1))
+                .thenReturn(new BlogResponseCache.Rendered(json, new byte[] {31, -117}, "W/\"1\""));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+
+        ResponseEntity<byte[]> response =
+                blogController.getBlogById(1, new ServletWebRequest(servletRequest));
+
+        assertSame(json, response.getBody());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
     }
 
     @Test
     void getBlogByIdNotFoundTest() {
         int blogId = 1;
 
-        when(blogService.getBlogById(blogId)).thenReturn(Optional.empty());
+        when(blogService.getRenderedBlog(blogId)).thenReturn(null);
 
-        ResponseEntity<Blog> expectedResponse = ResponseEntity.notFound().build();
+        ResponseEntity<byte[]> actualResponse = blogController.getBlogById(blogId, request());
 
-        ResponseEntity<Blog> actualResponse = blogController.getBlogById(blogId);
-
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(HttpStatus.NOT_FOUND, actualResponse.getStatusCode());
     }
 
     @Test
@@ -92,15 +161,15 @@ class BlogControllerTest {
         String title = "Updated Title";
         BlogDTO content = new BlogDTO(htmlContent, title);
 
-        when(blogService.updateBlog(id, htmlContent, title))
+        when(blogService.updateBlog(id, htmlContent, title, 3L))
                 .thenReturn(new ResponseEntity<>("Blog updated successfully", HttpStatus.OK));
 
-        ResponseEntity<String> responseEntity = blogController.updateBlog(id, content);
+        ResponseEntity<String> responseEntity = blogController.updateBlog(id, content, "\"3-gzip\"");
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals("Blog updated successfully", responseEntity.getBody());
 
-        verify(blogService, times(1)).updateBlog(id, htmlContent, title);
+        verify(blogService, times(1)).updateBlog(id, htmlContent, title, 3L);
     }
 
     @Test
@@ -0,0 +1,69 @@
+package com.example.cloud_tracker.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.model.IAMRole;
+import com.example.cloud_tracker.service.EC2InstanceService;
+import com.example.cloud_tracker.service.IAMRoleService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class IAMRoleControllerTest {
+
+  private static final String ARN = "arn:aws:iam::111111111111:role/Costs";
+
+  private final IAMRoleService iamRoleService = mock(IAMRoleService.class);
+  private final IAMRoleController iamRoleController =
+      new IAMRoleController(iamRoleService, mock(EC2InstanceService.class));
+
+  @Test
+  void costsAreReturnedAsTheyAreWithoutParameters() {
+    List<ServiceCostDTO> costs = stubCosts();
+
+    ResponseEntity<List<ServiceCostDTO>> response =
+        iamRoleController.getBlendedCost(ARN, null, null, null, null);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(costs, response.getBody());
+  }
+
+  @Test
+  void costsAreAggregatedWhenAsked() {
+    stubCosts();
+
+    ResponseEntity<List<ServiceCostDTO>> response =
+        iamRoleController.getBlendedCost(
+            ARN, "service", 1, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 2));
+
+    assertEquals(List.of(new ServiceCostDTO("2024-01-02", "S3", 5.0)), response.getBody());
+    verify(iamRoleService)
+        .getBlendedCost(new IAMRole(ARN), LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 2));
+  }
+
+  @Test
+  void unknownGroupingIsRejectedBeforeCallingAws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> iamRoleController.getBlendedCost(ARN, "year", null, null, null));
+    verifyNoInteractions(iamRoleService);
+  }
+
+  private List<ServiceCostDTO> stubCosts() {
+    IAMRole role = new IAMRole(ARN);
+    List<ServiceCostDTO> costs =
+        List.of(
+            new ServiceCostDTO("2024-01-01", "EC2", 9.0),
+            new ServiceCostDTO("2024-01-02", "EC2", 2.0),
+            new ServiceCostDTO("2024-01-02", "S3", 5.0));
+    when(iamRoleService.getIAMRoleByArn(ARN)).thenReturn(role);
+    when(iamRoleService.getBlendedCost(eq(role), any(), any())).thenReturn(costs);
+    return costs;
+  }
+}
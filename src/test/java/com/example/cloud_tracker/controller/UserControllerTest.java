@@ -5,6 +5,8 @@ import com.example.cloud_tracker.dto.UserDTO;
 import com.example.cloud_tracker.dto.UserProfileDTO;
 import com.example.cloud_tracker.model.JwtResponse;
 import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.service.ProfileImageService;
 import com.example.cloud_tracker.service.UserService;
 
 import init.UserInit;
@@ -15,17 +17,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.junit.Assert.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 public class UserControllerTest {
 
+    private static final UserPrincipal PRINCIPAL = new UserPrincipal(1, "test@test.com", "test");
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private ProfileImageService profileImageService;
+
     @InjectMocks
     private UserController userController;
 
@@ -85,13 +98,42 @@ public class UserControllerTest {
 
     @Test
     public void testGetCurrentUserProfilePicture() {
-        String expectedProfilePicture = "img";
-        when(userService.getCurrentUserProfilePicture()).thenReturn(expectedProfilePicture);
+        byte[] image = {1, 2, 3};
+        when(profileImageService.getContentHash(1)).thenReturn("abc");
+        when(profileImageService.getPicture(1)).thenReturn(new ProfileImageService.Picture("image/png", image));
 
-        ResponseEntity<String> response = userController.getCurrentUserProfilePicture();
+        ResponseEntity<byte[]> response = userController.getCurrentUserProfilePicture(
+                PRINCIPAL, "full", new ServletWebRequest(new MockHttpServletRequest("GET", "/me/profile-picture")));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(expectedProfilePicture, response.getBody());
+        assertArrayEquals(image, response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+    }
+
+    @Test
+    public void testGetCurrentUserProfilePictureNotModified() {
+        when(profileImageService.getContentHash(1)).thenReturn("abc");
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/me/profile-picture");
+        servletRequest.addHeader("If-None-Match", "\"abc-thumbnail\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = userController.getCurrentUserProfilePicture(
+                PRINCIPAL, "thumbnail", new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(profileImageService, never()).getThumbnail(anyInt());
+    }
+
+    @Test
+    public void testGetCurrentUserProfilePictureMissing() {
+        when(profileImageService.getContentHash(1)).thenReturn(null);
+
+        ResponseEntity<byte[]> response = userController.getCurrentUserProfilePicture(
+                PRINCIPAL, "full", new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
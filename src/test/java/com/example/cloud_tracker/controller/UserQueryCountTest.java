@@ -0,0 +1,104 @@
+package com.example.cloud_tracker.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.cloud_tracker.dto.UserDTO;
+import com.example.cloud_tracker.model.User;
+import com.example.cloud_tracker.service.JwtService;
+import com.example.cloud_tracker.service.UserService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Counts the selects against the users table that each authenticated user endpoint issues. */
+@SpringBootTest(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.example.cloud_tracker.controller.UserQueryCountTest$UserQueryCounter")
+@AutoConfigureMockMvc
+public class UserQueryCountTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private UserService userService;
+  @Autowired private JwtService jwtService;
+
+  private String email;
+  private String token;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // Other tests leave mocked contexts behind on this thread.
+    SecurityContextHolder.clearContext();
+    email = "query-count-" + System.nanoTime() + "@test.com";
+    User user = userService.register(new UserDTO(email, "password", "name"));
+    token = jwtService.generateToken(user);
+    // Authenticate once so the principal caches are warm, as they are for a signed-in client.
+    mockMvc.perform(authorized(get("/me/email"))).andExpect(status().isOk());
+  }
+
+  @Test
+  void profileIsOneQuery() throws Exception {
+    assertThat(userQueries(authorized(get("/me/profile")))).isEqualTo(1);
+  }
+
+  @Test
+  void nameIsOneQuery() throws Exception {
+    assertThat(userQueries(authorized(get("/me/name")))).isEqualTo(1);
+  }
+
+  @Test
+  void validateTokenIsNoQuery() throws Exception {
+    assertThat(
+            userQueries(
+                authorized(post("/validate-token"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"token\":\"" + token + "\"}")))
+        .isZero();
+  }
+
+  @Test
+  void editProfileWithSameEmailIsOneQuery() throws Exception {
+    assertThat(
+            userQueries(
+                authorized(patch("/me/profile"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"email\":\"" + email + "\",\"name\":\"renamed\"}")))
+        .isEqualTo(1);
+  }
+
+  private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + token);
+  }
+
+  private int userQueries(RequestBuilder request) throws Exception {
+    UserQueryCounter.COUNT.set(0);
+    mockMvc.perform(request).andExpect(status().isOk());
+    return UserQueryCounter.COUNT.get();
+  }
+
+  public static class UserQueryCounter implements StatementInspector {
+    static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+      String normalized = sql.toLowerCase();
+      if (normalized.startsWith("select") && normalized.contains(" from users ")) {
+        COUNT.incrementAndGet();
+      }
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.cloud_tracker.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.configuration.RateLimitProperties;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Key;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Policy;
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.service.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class RateLimitFilterTest {
+
+  private RateLimitFilter rateLimitFilter;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    RateLimitProperties properties = new RateLimitProperties();
+    properties.setPolicies(
+        List.of(
+            new Policy("auth", List.of("/signin"), Key.IP, 1, 0.5),
+            new Policy("aws", List.of("/role/**"), Key.USER, 1, 0.5)));
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimitFilter = new RateLimitFilter();
+    rateLimitFilter.setRateLimiter(new RateLimiter(properties));
+    rateLimitFilter.setRateLimitProperties(properties);
+    rateLimitFilter.setMeterRegistry(meterRegistry);
+    SecurityContextHolder.clearContext();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void rejectsWithRetryAfterOnceTheBucketIsEmpty() throws Exception {
+    FilterChain chain = mock(FilterChain.class);
+
+    MockHttpServletResponse first = send("/signin", "10.0.0.1", chain);
+    MockHttpServletResponse second = send("/signin", "10.0.0.1", chain);
+
+    assertEquals(200, first.getStatus());
+    assertEquals(429, second.getStatus());
+    assertEquals("2", second.getHeader("Retry-After"));
+    verify(chain, times(1)).doFilter(any(), any());
+    assertEquals(
+        1.0, meterRegistry.get("rate_limit.rejected").tag("policy", "auth").counter().count());
+  }
+
+  @Test
+  void authenticatedRequestsAreLimitedPerUser() throws Exception {
+    FilterChain chain = mock(FilterChain.class);
+    authenticate(new UserPrincipal(1, "a@test.com", "x"));
+    assertEquals(200, send("/role/ec2cost", "10.0.0.1", chain).getStatus());
+    // The same user from another address shares the bucket...
+    assertEquals(429, send("/role/ec2cost", "10.0.0.2", chain).getStatus());
+
+    // ...while another user behind the same address has their own.
+    authenticate(new UserPrincipal(2, "b@test.com", "x"));
+    assertEquals(200, send("/role/ec2cost", "10.0.0.1", chain).getStatus());
+  }
+
+  @Test
+  void unlimitedPathsAndDisabledLimiterPassThrough() throws Exception {
+    FilterChain chain = mock(FilterChain.class);
+    assertEquals(200, send("/blogs", "10.0.0.1", chain).getStatus());
+    assertEquals(200, send("/blogs", "10.0.0.1", chain).getStatus());
+
+    RateLimitProperties disabled = new RateLimitProperties();
+    disabled.setEnabled(false);
+    rateLimitFilter.setRateLimitProperties(disabled);
+    assertTrue(rateLimitFilter.shouldNotFilter(new MockHttpServletRequest("POST", "/signin")));
+  }
+
+  private MockHttpServletResponse send(String path, String address, FilterChain chain)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setRemoteAddr(address);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    rateLimitFilter.doFilterInternal(request, response, chain);
+    return response;
+  }
+
+  private static void authenticate(UserPrincipal principal) {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+  }
+}
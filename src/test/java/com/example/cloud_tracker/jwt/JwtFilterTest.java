@@ -4,15 +4,26 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
+import com.example.cloud_tracker.configuration.PublicRoutes;
 import com.example.cloud_tracker.filter.JwtFilter;
+import com.example.cloud_tracker.metrics.AuthMetrics;
+import com.example.cloud_tracker.model.VerifiedToken;
+import com.example.cloud_tracker.service.CurrentUserContext;
+import com.example.cloud_tracker.repository.BlackListedTokensRepository;
 import com.example.cloud_tracker.service.JwtService;
+import com.example.cloud_tracker.service.TokenDigest;
+import com.example.cloud_tracker.service.TokenRevocationService;
 import com.example.cloud_tracker.service.UserDetailsServiceImpl;
+import com.example.cloud_tracker.service.VerifiedTokenCache;
 import init.UserInit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,8 +31,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
@@ -36,6 +49,8 @@ public class JwtFilterTest {
     private UserDetailsServiceImpl userDetailsService;
     @InjectMocks
     private JwtFilter jwtFilter;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenRevocationService tokenRevocationService;
 
     @BeforeEach
     public void setUp() {
@@ -44,6 +59,15 @@ public class JwtFilterTest {
         jwtFilter = new JwtFilter();
         jwtFilter.setJwtService(jwtService);
         jwtFilter.setUserDetailsService(userDetailsService);
+        verifiedTokenCache = new VerifiedTokenCache(100);
+        tokenRevocationService = new TokenRevocationService(
+                mock(BlackListedTokensRepository.class), verifiedTokenCache, mock(JdbcTemplate.class), 1 << 16);
+        jwtFilter.setVerifiedTokenCache(verifiedTokenCache);
+        jwtFilter.setTokenRevocationService(tokenRevocationService);
+        jwtFilter.setCurrentUserContext(new CurrentUserContext());
+        jwtFilter.setPublicRoutes(new PublicRoutes());
+        jwtFilter.setAuthMetrics(new AuthMetrics(new SimpleMeterRegistry()));
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -86,16 +110,89 @@ public class JwtFilterTest {
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         String validToken = "validToken";
+        VerifiedToken verifiedToken = new VerifiedToken(validToken, "tst@example.com", null);
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(jwtService.extractUserName(validToken)).thenReturn("tst@example.com");
+        when(jwtService.verifyToken(validToken)).thenReturn(verifiedToken);
         when(userDetailsService.loadUserByUsername("tst@example.com")).thenReturn(user);
-        when(jwtService.validateToken(validToken, user)).thenReturn(true);
+        when(jwtService.validateToken(verifiedToken, TokenDigest.of(validToken), user)).thenReturn(true);
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
+        verify(jwtService, times(1)).verifyToken(validToken);
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void testDoFilterInternal_RepeatTokenServedFromCache() throws ServletException, IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+        UserDetails user = UserInit.createUser();
+
+        String validToken = "validToken";
+        VerifiedToken verifiedToken = new VerifiedToken(
+                validToken, user.getUsername(), new Date(System.currentTimeMillis() + 60_000));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(jwtService.verifyToken(validToken)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenReturn(user);
+        when(jwtService.validateToken(verifiedToken, TokenDigest.of(validToken), user)).thenReturn(true);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtService, times(1)).verifyToken(validToken);
+        verify(userDetailsService, times(1)).loadUserByUsername(user.getUsername());
+        verify(filterChain, times(2)).doFilter(request, response);
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getPrincipal() == user);
+    }
+
+    @Test
+    void testDoFilterInternal_TokenRevokedWhileBeingVerifiedIsNotServedFromCache()
+            throws ServletException, IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+        UserDetails user = UserInit.createUser();
+        String validToken = "validToken";
+        VerifiedToken verifiedToken = new VerifiedToken(
+                validToken, user.getUsername(), new Date(System.currentTimeMillis() + 60_000));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(jwtService.verifyToken(validToken)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenReturn(user);
+        // Logout completes, invalidation included, after validation but before the put.
+        when(jwtService.validateToken(verifiedToken, TokenDigest.of(validToken), user)).thenAnswer(invocation -> {
+            tokenRevocationService.revoke(TokenDigest.of(validToken), Instant.now().plusSeconds(60));
+            return true;
+        });
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        HttpServletResponse afterLogout = mock(HttpServletResponse.class);
+        jwtFilter.doFilterInternal(request, afterLogout, filterChain);
+
+        verify(afterLogout).sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token is not valid");
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(filterChain, never()).doFilter(request, afterLogout);
+        assertTrue(verifiedTokenCache.get(TokenDigest.of(validToken)) == null);
+    }
+
+    @Test
+    void testDoFilterInternal_UnverifiableToken() throws ServletException, IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer tampered");
+        when(jwtService.verifyToken("tampered")).thenReturn(null);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        verify(response).sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token is not valid");
+        verifyNoInteractions(userDetailsService);
+        verifyNoInteractions(filterChain);
+    }
+
     @Test
     void testDoFilterInternal_NotBearerToken() throws ServletException, IOException {
         HttpServletRequest request = mock(HttpServletRequest.class);
@@ -0,0 +1,57 @@
+package com.example.cloud_tracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/** The endpoints the load test can drive, each with the request it sends. */
+enum Endpoint {
+  SIGNIN("signin") {
+    @Override
+    HttpRequest request(String baseUrl, LoadTestSession session) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + "/signin"))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(session.credentialsJson()))
+          .build();
+    }
+  },
+  ROLE_COST("role-cost") {
+    @Override
+    HttpRequest request(String baseUrl, LoadTestSession session) {
+      return session
+          .authorized(URI.create(baseUrl + "/role/cost?arn=" + LoadTestSession.ROLE_ARN))
+          .GET()
+          .build();
+    }
+  },
+  COST_MONTHS("cost-months") {
+    @Override
+    HttpRequest request(String baseUrl, LoadTestSession session) {
+      return session.authorized(URI.create(baseUrl + "/cost-info/months")).GET().build();
+    }
+  },
+  BLOGS("blogs") {
+    @Override
+    HttpRequest request(String baseUrl, LoadTestSession session) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + "/blogs")).GET().build();
+    }
+  };
+
+  private final String label;
+
+  Endpoint(String label) {
+    this.label = label;
+  }
+
+  String label() {
+    return label;
+  }
+
+  abstract HttpRequest request(String baseUrl, LoadTestSession session);
+
+  static Endpoint byName(String name) {
+    for (Endpoint endpoint : values()) {
+      if (endpoint.label.equals(name)) return endpoint;
+    }
+    throw new IllegalArgumentException("Unknown endpoint '" + name + "'");
+  }
+}
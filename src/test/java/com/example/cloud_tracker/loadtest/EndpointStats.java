@@ -0,0 +1,72 @@
+package com.example.cloud_tracker.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/** Latency histogram and success/error counters for one endpoint. */
+class EndpointStats {
+
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Endpoint endpoint;
+  // Up to one minute at three significant digits.
+  private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+  private final AtomicLong expected = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private long elapsedNanos;
+
+  EndpointStats(Endpoint endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  void record(long latencyNanos, boolean success) {
+    latencies.recordValue(Math.min(latencyNanos, latencies.getHighestTrackableValue()));
+    if (!success) errors.incrementAndGet();
+    completed.incrementAndGet();
+  }
+
+  long expected() {
+    return expected.get();
+  }
+
+  long completed() {
+    return completed.get();
+  }
+
+  void scheduled() {
+    expected.incrementAndGet();
+  }
+
+  void finish(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  void printSummary(PrintStream out) {
+    long ok = completed.get() - errors.get();
+    double seconds = elapsedNanos / 1e9;
+    out.printf(
+        "%-12s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+        endpoint.label(),
+        ok,
+        errors.get(),
+        seconds > 0 ? ok / seconds : 0,
+        millis(latencies.getValueAtPercentile(50)),
+        millis(latencies.getValueAtPercentile(90)),
+        millis(latencies.getValueAtPercentile(99)),
+        millis(latencies.getValueAtPercentile(99.9)),
+        millis(latencies.getMaxValue()));
+  }
+
+  void printDistribution(PrintStream out) {
+    out.printf("%n--- %s latency distribution (ms) ---%n", endpoint.label());
+    latencies.outputPercentileDistribution(out, 5, NANOS_PER_MILLI);
+  }
+
+  private static double millis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+}
@@ -0,0 +1,208 @@
+package com.example.cloud_tracker.loadtest;
+
+import com.example.cloud_tracker.CloudTrackerApplication;
+import com.example.cloud_tracker.service.MonthlyCostService;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Open-model HTTP load test: requests are issued on a fixed schedule regardless of how fast the
+ * server answers, and latency is measured from the scheduled start so queueing delay is not
+ * hidden (no coordinated omission).
+ *
+ * <p>By default the application is booted in-process on H2 with the AWS calls stubbed; set {@code
+ * loadtest.base-url} to drive an already running instance instead. See {@link LoadTestSettings}
+ * for the available knobs.
+ */
+public class LoadTestRunner {
+
+  private static final int SEED_BLOGS = 20;
+  private static final int SEED_COST_DAYS = 180;
+
+  public static void main(String[] args) throws Exception {
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    ConfigurableApplicationContext context = null;
+    String baseUrl = settings.baseUrl();
+    if (settings.bootApplication()) {
+      context = boot(settings);
+      int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+      baseUrl = "http://localhost:" + port;
+      seedCosts(context.getBean(MonthlyCostService.class));
+    }
+
+    ExecutorService clients = newClientExecutor();
+    HttpClient client =
+        HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+    try {
+      LoadTestSession session = new LoadTestSession();
+      session.seed(client, baseUrl, settings.bootApplication() ? SEED_BLOGS : 0);
+
+      System.out.println("Warming up for " + settings.warmup().toSeconds() + "s");
+      run(client, clients, baseUrl, session, settings, settings.warmup());
+      System.out.println("Measuring for " + settings.duration().toSeconds() + "s");
+      ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+      Map<Endpoint, EndpointStats> stats =
+          run(client, clients, baseUrl, session, settings, settings.duration());
+
+      Path report = writeReport(settings, stats);
+      System.out.println("Load test report written to " + report.toAbsolutePath());
+    } finally {
+      clients.shutdownNow();
+      if (context != null) context.close();
+    }
+  }
+
+  private static ConfigurableApplicationContext boot(LoadTestSettings settings) {
+    return new SpringApplicationBuilder(CloudTrackerApplication.class, StubAwsConfiguration.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.show-sql=false",
+            "spring.devtools.restart.enabled=false",
+            "rate-limit.enabled=false",
+            "spring.threads.virtual.enabled=" + settings.virtualThreads(),
+            "logging.level.root=WARN",
+            "loadtest.aws-latency-ms=" + settings.awsLatencyMillis())
+        .run();
+  }
+
+  private static void seedCosts(MonthlyCostService monthlyCostService) {
+    Random random = new Random(42);
+    LocalDate start = LocalDate.now().minusDays(SEED_COST_DAYS);
+    for (int day = 0; day < SEED_COST_DAYS; day++) {
+      String date = start.plusDays(day).toString();
+      for (String service : new String[] {"EC2", "S3", "RDS", "Lambda", "CloudWatch"}) {
+        monthlyCostService.addNewMonthlyCost(date, service, random.nextDouble() * 100);
+      }
+    }
+  }
+
+  /** Virtual threads when running on Java 21+, a cached platform thread pool otherwise. */
+  static ExecutorService newClientExecutor() {
+    try {
+      ExecutorService executor =
+          (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      System.out.println("Load test clients run on virtual threads");
+      return executor;
+    } catch (ReflectiveOperationException e) {
+      System.out.println("Virtual threads unavailable, load test clients run on platform threads");
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  private static Map<Endpoint, EndpointStats> run(
+      HttpClient client,
+      ExecutorService clients,
+      String baseUrl,
+      LoadTestSession session,
+      LoadTestSettings settings,
+      Duration duration)
+      throws InterruptedException {
+    Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    Endpoint[] schedule = weightedSchedule(settings.mix());
+    for (Endpoint endpoint : schedule) stats.computeIfAbsent(endpoint, EndpointStats::new);
+
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond());
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    Random random = new Random(7);
+    long intended = start;
+    while (intended < end) {
+      long now = System.nanoTime();
+      if (now < intended) LockSupport.parkNanos(intended - now);
+
+      Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+      EndpointStats endpointStats = stats.get(endpoint);
+      endpointStats.scheduled();
+      long scheduledAt = intended;
+      client
+          .sendAsync(endpoint.request(baseUrl, session), HttpResponse.BodyHandlers.discarding())
+          .whenComplete(
+              (response, error) ->
+                  endpointStats.record(
+                      System.nanoTime() - scheduledAt,
+                      error == null && response.statusCode() / 100 == 2));
+      intended += intervalNanos;
+    }
+    long elapsed = System.nanoTime() - start;
+
+    // Give in-flight requests a chance to finish so their latency is counted.
+    long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (stats.values().stream().anyMatch(s -> s.completed() < s.expected())
+        && System.nanoTime() < drainDeadline) {
+      Thread.sleep(50);
+    }
+    stats.values().forEach(s -> s.finish(elapsed));
+    return stats;
+  }
+
+  private static Endpoint[] weightedSchedule(Map<Endpoint, Integer> mix) {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    Endpoint[] schedule = new Endpoint[total];
+    int i = 0;
+    for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+      for (int w = 0; w < entry.getValue(); w++) schedule[i++] = entry.getKey();
+    }
+    return schedule;
+  }
+
+  private static Path writeReport(LoadTestSettings settings, Map<Endpoint, EndpointStats> stats)
+      throws IOException {
+    Path dir = Path.of(settings.reportDir());
+    Files.createDirectories(dir);
+    String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    Path report = dir.resolve("report-" + timestamp + ".txt");
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    // Platform threads only: virtual threads are not counted, so the peak shows what the
+    // server's pool would otherwise have needed.
+    String threadMode =
+        settings.virtualThreads() && Runtime.version().feature() >= 21 ? "virtual" : "platform";
+    try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+      out.printf(
+          "rate=%.1f req/s, duration=%ds, mix=%s, aws-latency=%dms, java=%s, server-threads=%s%n"
+              + "heap-used=%dMB, non-heap-used=%dMB, peak-platform-threads=%d%n%n",
+          settings.ratePerSecond(),
+          settings.duration().toSeconds(),
+          settings.mix(),
+          settings.awsLatencyMillis(),
+          Runtime.version(),
+          threadMode,
+          memory.getHeapMemoryUsage().getUsed() >> 20,
+          memory.getNonHeapMemoryUsage().getUsed() >> 20,
+          threads.getPeakThreadCount());
+      out.printf(
+          "%-12s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+          "endpoint", "ok", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+      for (EndpointStats endpointStats : stats.values()) endpointStats.printSummary(out);
+      for (EndpointStats endpointStats : stats.values()) endpointStats.printDistribution(out);
+    }
+    for (EndpointStats endpointStats : stats.values()) endpointStats.printSummary(System.out);
+    return report;
+  }
+}
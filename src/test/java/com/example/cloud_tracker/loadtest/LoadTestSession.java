@@ -0,0 +1,71 @@
+package com.example.cloud_tracker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** The user the load test signs in as, and the data it seeds through the public API. */
+class LoadTestSession {
+
+  static final String ROLE_ARN = "arn:aws:iam::000000000000:role/LoadTestRole";
+
+  private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+  private final String email = "loadtest-" + System.currentTimeMillis() + "@example.com";
+  private final String password = "load-test-password";
+  private String token;
+
+  String credentialsJson() {
+    return "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+  }
+
+  HttpRequest.Builder authorized(URI uri) {
+    return HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token);
+  }
+
+  void seed(HttpClient client, String baseUrl, int blogs) throws IOException, InterruptedException {
+    String signup =
+        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\",\"name\":\"Load Test\"}";
+    expectSuccess(client, post(baseUrl + "/signup", signup).build(), "signup");
+
+    HttpResponse<String> signin =
+        expectSuccess(client, post(baseUrl + "/signin", credentialsJson()).build(), "signin");
+    Matcher matcher = TOKEN.matcher(signin.body());
+    if (!matcher.find()) throw new IllegalStateException("No token in signin response");
+    token = matcher.group(1);
+
+    expectSuccess(
+        client,
+        authorized(URI.create(baseUrl + "/role?arn=" + ROLE_ARN))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build(),
+        "add role");
+
+    for (int i = 0; i < blogs; i++) {
+      String blog =
+          "{\"title\":\"Load test article " + i + "\",\"htmlContent\":\"<h1>Article " + i
+              + "</h1><p>" + "Lorem ipsum dolor sit amet. ".repeat(200) + "</p>\"}";
+      expectSuccess(client, post(baseUrl + "/blogs/blog", blog).build(), "create blog");
+    }
+  }
+
+  private static HttpRequest.Builder post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json));
+  }
+
+  private static HttpResponse<String> expectSuccess(
+      HttpClient client, HttpRequest request, String step)
+      throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() / 100 != 2)
+      throw new IllegalStateException(
+          "Seeding failed at " + step + ": " + response.statusCode() + " " + response.body());
+    return response;
+  }
+}
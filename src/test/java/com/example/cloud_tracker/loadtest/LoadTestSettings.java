@@ -0,0 +1,56 @@
+package com.example.cloud_tracker.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from system properties so they can be passed straight through Maven:
+ *
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.rate=200 -Dloadtest.duration=60 \
+ *     -Dloadtest.mix=signin:1,role-cost:3,cost-months:3,blogs:3
+ * </pre>
+ *
+ * <p>{@code -Dloadtest.virtual-threads=false} boots the application on Tomcat platform threads,
+ * for comparing against virtual threads under {@code -Pjava21}.
+ */
+record LoadTestSettings(
+    String baseUrl,
+    double ratePerSecond,
+    Duration warmup,
+    Duration duration,
+    Map<Endpoint, Integer> mix,
+    long awsLatencyMillis,
+    boolean virtualThreads,
+    String reportDir) {
+
+  static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        System.getProperty("loadtest.base-url", ""),
+        Double.parseDouble(System.getProperty("loadtest.rate", "100")),
+        Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+        Duration.ofSeconds(Long.getLong("loadtest.duration", 30)),
+        parseMix(System.getProperty("loadtest.mix", "signin:1,role-cost:3,cost-months:3,blogs:3")),
+        Long.getLong("loadtest.aws-latency-ms", 150),
+        Boolean.parseBoolean(System.getProperty("loadtest.virtual-threads", "true")),
+        System.getProperty("loadtest.report-dir", "target/loadtest"));
+  }
+
+  static Map<Endpoint, Integer> parseMix(String mix) {
+    Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length != 2)
+        throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected name:weight");
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) weights.put(Endpoint.byName(parts[0].trim()), weight);
+    }
+    if (weights.isEmpty()) throw new IllegalArgumentException("Traffic mix is empty");
+    return weights;
+  }
+
+  boolean bootApplication() {
+    return baseUrl.isEmpty();
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.cloud_tracker.loadtest;
+
+import com.example.cloud_tracker.controller.MockCostsService;
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.metrics.AwsCallMetrics;
+import com.example.cloud_tracker.model.IAMRole;
+import com.example.cloud_tracker.repository.IAMRoleRepository;
+import com.example.cloud_tracker.service.AwsCallLimiter;
+import com.example.cloud_tracker.service.IAMRoleService;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Replaces the cost explorer calls with canned data and a fixed delay, so the load test measures
+ * our own stack plus a realistic wait on AWS without needing an account.
+ *
+ * <p>Deliberately not annotated with {@code @Configuration}: it is registered explicitly by {@link
+ * LoadTestRunner} and must stay invisible to component scanning in the regular test suite.
+ */
+class StubAwsConfiguration {
+
+  @Bean
+  @Primary
+  IAMRoleService stubIamRoleService(
+      IAMRoleRepository iamRoleRepository,
+      AwsCallMetrics awsCallMetrics,
+      AwsCallLimiter awsCallLimiter,
+      @Value("${loadtest.aws-latency-ms:150}") long awsLatencyMillis) {
+    List<ServiceCostDTO> costs = new MockCostsService().generateRandomMockBlendedCost();
+    return new IAMRoleService(iamRoleRepository, awsCallMetrics, awsCallLimiter) {
+      @Override
+      public List<ServiceCostDTO> getBlendedCost(IAMRole iamRole, LocalDate from, LocalDate to) {
+        try {
+          Thread.sleep(awsLatencyMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return costs;
+      }
+    };
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.cloud_tracker.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.model.IAMRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+public class AwsCallMetricsTest {
+
+  private static final IAMRole ROLE =
+      new IAMRole("123", "Reader", 1, "arn:aws:iam::123:role/Reader");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AwsCallMetrics awsCallMetrics = new AwsCallMetrics(meterRegistry);
+
+  @Test
+  void timesCallsByApiAndAccount() {
+    assertEquals("ok", awsCallMetrics.record("GetCostAndUsage", ROLE, () -> "ok"));
+    awsCallMetrics.record("GetCostAndUsage", ROLE, 2, () -> "ok");
+    awsCallMetrics.record("GetCostForecast", null, () -> "ok");
+
+    assertEquals(
+        2,
+        meterRegistry.get("aws.calls").tags("api", "GetCostAndUsage", "account", "123").timer().count());
+    assertEquals(
+        1,
+        meterRegistry.get("aws.calls").tags("api", "GetCostForecast", "account", "unknown").timer().count());
+  }
+
+  @Test
+  void countsFailuresAndRethrows() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> awsCallMetrics.record("GetCostAndUsage", ROLE, () -> {
+          throw new IllegalStateException("throttled");
+        }));
+
+    assertEquals(
+        1.0,
+        meterRegistry.get("aws.calls.errors").tag("exception", "IllegalStateException").counter().count());
+    assertEquals(1, meterRegistry.get("aws.calls").tag("account", "123").timer().count());
+  }
+
+  @Test
+  void emitsFlightRecorderEvents() throws Exception {
+    Path file = Files.createTempFile("aws-calls", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(AwsCallEvent.class);
+      recording.start();
+      awsCallMetrics.record("GetCostAndUsage", ROLE, 3, () -> "ok");
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events =
+          RecordingFile.readAllEvents(file).stream()
+              .filter(event -> event.getEventType().getName().equals("cloud_tracker.AwsCall"))
+              .toList();
+      assertEquals(1, events.size());
+      assertEquals("GetCostAndUsage", events.get(0).getString("api"));
+      assertEquals(ROLE.getArn(), events.get(0).getString("roleArn"));
+      assertEquals(3, events.get(0).getInt("page"));
+      assertNull(events.get(0).getString("error"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
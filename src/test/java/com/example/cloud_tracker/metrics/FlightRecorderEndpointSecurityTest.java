@@ -0,0 +1,39 @@
+package com.example.cloud_tracker.metrics;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(
+    properties = {
+      "management.endpoints.web.exposure.include=health,jfr",
+      "jfr.operator.username=ops",
+      "jfr.operator.password=recording-secret"
+    })
+@AutoConfigureMockMvc
+public class FlightRecorderEndpointSecurityTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void onlyTheOperatorCredentialReachesTheEndpoint() throws Exception {
+    mockMvc.perform(get("/actuator/jfr")).andExpect(status().isUnauthorized());
+    // A signed-in application user is not an operator.
+    mockMvc
+        .perform(get("/actuator/jfr").with(user("tst@example.com")))
+        .andExpect(status().isForbidden());
+    mockMvc
+        .perform(get("/actuator/jfr").with(httpBasic("ops", "wrong")))
+        .andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(get("/actuator/jfr").with(httpBasic("ops", "recording-secret")))
+        .andExpect(status().isOk());
+  }
+}
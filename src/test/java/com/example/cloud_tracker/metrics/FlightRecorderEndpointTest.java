@@ -0,0 +1,78 @@
+package com.example.cloud_tracker.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.core.io.Resource;
+
+public class FlightRecorderEndpointTest {
+
+  private final FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint();
+
+  @AfterEach
+  void tearDown() {
+    try {
+      endpoint.control("stop", null, null);
+    } catch (InvalidEndpointRequestException ignored) {
+      // Not running.
+    }
+  }
+
+  @Test
+  void startsDumpsAndStopsARecording() throws Exception {
+    Map<String, Object> started = endpoint.control("start", "default", Duration.ofMinutes(5));
+    assertEquals(FlightRecorderEndpoint.RECORDING_NAME, started.get("name"));
+    assertEquals(RecordingState.RUNNING, started.get("state"));
+    assertEquals(Duration.ofMinutes(5), started.get("maxAge"));
+
+    Resource dump = endpoint.dump("dump");
+    assertNotNull(dump);
+    try (InputStream in = dump.getInputStream()) {
+      // Every recording file starts with the "FLR" magic.
+      assertArrayEquals("FLR".getBytes(), in.readNBytes(3));
+    }
+    assertFalse(dump.exists());
+
+    assertEquals(RecordingState.STOPPED, endpoint.control("stop", null, null).get("state"));
+  }
+
+  @Test
+  void recordingLeavesOutEnvironmentAndSystemProperties() throws Exception {
+    endpoint.control("start", "default", null);
+
+    Path file = Files.createTempFile("jfr-test-", ".jfr");
+    try {
+      try (InputStream in = endpoint.dump("dump").getInputStream()) {
+        Files.write(file, in.readAllBytes());
+      }
+      List<String> events =
+          RecordingFile.readAllEvents(file).stream()
+              .map(event -> event.getEventType().getName())
+              .toList();
+      assertFalse(events.isEmpty());
+      FlightRecorderEndpoint.SECRET_EVENTS.forEach(secret -> assertFalse(events.contains(secret)));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void rejectsUnknownActionsAndSettings() {
+    assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("pause", null, null));
+    assertThrows(
+        InvalidEndpointRequestException.class, () -> endpoint.control("start", "nope", null));
+    assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("stop", null, null));
+    assertDoesNotThrow(() -> assertNull(endpoint.dump("other")));
+    assertDoesNotThrow(() -> assertNull(endpoint.dump("dump")));
+  }
+}
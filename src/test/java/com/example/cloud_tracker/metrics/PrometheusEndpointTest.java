@@ -0,0 +1,44 @@
+package com.example.cloud_tracker.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class PrometheusEndpointTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void scrapeIsPublicAndCoversTheHotPaths() throws Exception {
+    SecurityContextHolder.clearContext();
+    // A rejected request, so the auth timer has a sample.
+    mockMvc.perform(get("/me/profile")).andExpect(status().isUnauthorized());
+
+    String scrape =
+        mockMvc
+            .perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    assertThat(scrape)
+        .contains("auth_filter_seconds_count{outcome=\"rejected\"")
+        .contains("cache_gets_total{cache=\"verified_tokens\"")
+        .contains("cache_gets_total{cache=\"user_principals\"")
+        .contains("password_hashing_queue_depth")
+        .contains("rate_limit_buckets")
+        .contains("csv_import_rows_total");
+  }
+}
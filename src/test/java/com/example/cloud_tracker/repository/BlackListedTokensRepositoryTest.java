@@ -0,0 +1,37 @@
+package com.example.cloud_tracker.repository;
+
+import com.example.cloud_tracker.model.BlackListedTokens;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BlackListedTokensRepositoryTest {
+  @Autowired private BlackListedTokensRepository blackListedTokensRepository;
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  public void testSaveInsertsWithoutSelectingFirst() {
+    String digest = "a".repeat(64);
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    blackListedTokensRepository.save(new BlackListedTokens(digest, Instant.now()));
+    entityManager.flush();
+
+    Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    entityManager.clear();
+    BlackListedTokens loaded = blackListedTokensRepository.findById(digest).orElseThrow();
+    Assertions.assertThat(loaded.isNew()).isFalse();
+  }
+}
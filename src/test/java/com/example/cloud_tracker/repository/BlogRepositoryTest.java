@@ -0,0 +1,50 @@
+package com.example.cloud_tracker.repository;
+
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.model.Blog;
+import java.time.Instant;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class BlogRepositoryTest {
+  @Autowired private BlogRepository blogRepository;
+
+  @Test
+  public void testFindSummariesPagesWithoutContent() {
+    for (int i = 0; i < 3; i++) {
+      Blog blog = new Blog(0, "Title " + i, "<p>Body " + i + "</p>");
+      blog.setExcerpt("Body " + i);
+      blog.setCreatedAt(Instant.ofEpochSecond(i));
+      blogRepository.save(blog);
+    }
+
+    Page<BlogSummaryDTO> page =
+        blogRepository.findSummaries(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+    Assertions.assertThat(page.getTotalElements()).isEqualTo(3);
+    Assertions.assertThat(page.getContent())
+        .extracting(BlogSummaryDTO::getTitle)
+        .containsExactly("Title 2", "Title 1");
+    Assertions.assertThat(page.getContent().get(0).getExcerpt()).isEqualTo("Body 2");
+    Assertions.assertThat(page.getContent().get(0).getCreatedAt())
+        .isEqualTo(Instant.ofEpochSecond(2));
+  }
+
+  @Test
+  public void testFindByExcerptIsNull() {
+    blogRepository.save(new Blog(0, "Legacy", "<p>Old</p>"));
+
+    Assertions.assertThat(blogRepository.findByExcerptIsNull())
+        .extracting(Blog::getTitle)
+        .containsExactly("Legacy");
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.cloud_tracker.repository;
+
+import com.example.cloud_tracker.model.MonthlyCost;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class MonthlyCostRepositoryTest {
+  @Autowired private MonthlyCostRepository monthlyCostRepository;
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  public void testSaveAllIsBatched() {
+    List<MonthlyCost> monthlyCosts = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      monthlyCosts.add(new MonthlyCost("2023-10-01", "Service" + i, (double) i));
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    monthlyCostRepository.saveAll(monthlyCosts);
+    entityManager.flush();
+
+    Assertions.assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+    // Three batches of inserts and three blocks of ids, instead of one statement per row.
+    Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    Assertions.assertThat(monthlyCosts).extracting(MonthlyCost::getId).doesNotHaveDuplicates();
+  }
+}
@@ -11,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
 import java.util.Optional;
 
 public class AWSServicesServiceTest {
@@ -47,4 +48,12 @@ public class AWSServicesServiceTest {
         awsServicesService.addNewAWSService(1, "Service1", 100.0);
         verify(awsServiceRepository, times(1)).save(any(AWSService.class));
     }
+
+    @Test
+    public void testAddNewAWSServices() {
+        List<AWSService> awsServices = List.of(new AWSService(1, "Service1", 100.0), new AWSService(2, "Service2", 5.0));
+
+        awsServicesService.addNewAWSServices(awsServices);
+        verify(awsServiceRepository, times(1)).saveAll(awsServices);
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.exception.AwsCallsSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+public class AwsCallLimiterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AwsCallLimiter awsCallLimiter = new AwsCallLimiter(meterRegistry, 1, 50);
+
+  @Test
+  void releasesThePermitWhenTheCallFails() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> awsCallLimiter.call("GetCostAndUsage", () -> {
+          throw new IllegalStateException("throttled");
+        }));
+
+    assertEquals(0.0, meterRegistry.get("aws.calls.active").gauge().value());
+    assertEquals("ok", awsCallLimiter.call("GetCostAndUsage", () -> "ok"));
+  }
+
+  @Test
+  void turnsAwayCallsOnceEveryPermitIsTaken() throws Exception {
+    CountDownLatch inFlight = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> slow =
+        CompletableFuture.supplyAsync(() -> awsCallLimiter.call("GetCostAndUsage", () -> {
+          inFlight.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          return "slow";
+        }));
+    inFlight.await();
+    assertEquals(1.0, meterRegistry.get("aws.calls.active").gauge().value());
+
+    assertThrows(
+        AwsCallsSaturatedException.class,
+        () -> awsCallLimiter.call("GetCostForecast", () -> "ok"));
+    assertEquals(
+        1.0, meterRegistry.get("aws.calls.rejected").tag("api", "GetCostForecast").counter().count());
+
+    release.countDown();
+    assertEquals("slow", slow.get());
+    assertEquals("ok", awsCallLimiter.call("GetCostForecast", () -> "ok"));
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+public class BlogResponseCacheTest {
+
+  private final BlogResponseCache cache = new BlogResponseCache(new ObjectMapper(), 600, 100);
+
+  @Test
+  void rendersOnceUntilInvalidated() throws IOException {
+    AtomicInteger loads = new AtomicInteger();
+    List<String> body = List.of("x".repeat(500));
+
+    BlogResponseCache.Rendered first = cache.get("index", () -> load(loads, body));
+    BlogResponseCache.Rendered second = cache.get("index", () -> load(loads, body));
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+
+    assertArrayEquals(first.json(), gunzip(first.gzipped()));
+    assertTrue(first.etag().startsWith("W/\""), first.etag());
+
+    cache.invalidateAll();
+    BlogResponseCache.Rendered third = cache.get("index", () -> load(loads, body));
+    assertEquals(2, loads.get());
+    assertEquals(first.etag(), third.etag());
+    assertNotEquals(first.etag(), cache.render(List.of("changed")).etag());
+  }
+
+  @Test
+  void renderRacingAWriteIsNotKept() {
+    AtomicInteger loads = new AtomicInteger();
+    cache.get(
+        "blog:1",
+        () -> {
+          // A write lands while this response is being built from the old row.
+          cache.invalidateAll();
+          return load(loads, "stale");
+        });
+    cache.get("blog:1", () -> load(loads, "fresh"));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void missingBodiesAndTinyBodies() {
+    assertNull(cache.get("blog:404", () -> null));
+    assertNull(cache.render("x").gzipped());
+  }
+
+  private static Object load(AtomicInteger loads, Object body) {
+    loads.incrementAndGet();
+    return body;
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    }
+  }
+}
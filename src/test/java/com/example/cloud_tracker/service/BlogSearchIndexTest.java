@@ -0,0 +1,96 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
+import com.example.cloud_tracker.model.Blog;
+import com.example.cloud_tracker.repository.BlogRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+public class BlogSearchIndexTest {
+
+  private final BlogRepository blogRepository = mock(BlogRepository.class);
+  private final BlogSearchIndex index = new BlogSearchIndex(blogRepository);
+
+  @Test
+  void ranksByBm25WithTitlesWeighted() {
+    index.put(blog(1, "Saving on EC2", "<p>Reserved instances cut <b>EC2</b> costs.</p>"));
+    index.put(blog(2, "S3 tiers", "<p>Move cold data to Glacier; EC2 is unrelated.</p>"));
+    index.put(blog(3, "Budgets", "<p>Alerts &amp; forecasts.</p>"));
+
+    assertEquals(List.of(1, 2), ids(index.search("ec2", 10)));
+    assertEquals(List.of(2), ids(index.search("GLACIER", 10)));
+    assertEquals(List.of(3), ids(index.search("forecasts alerts", 10)));
+    assertEquals(List.of(1), ids(index.search("ec2", 1)));
+    assertTrue(index.search("kubernetes", 10).isEmpty());
+    assertTrue(index.search("  ", 10).isEmpty());
+    // Markup is not searchable text.
+    assertTrue(index.search("b p", 10).isEmpty());
+  }
+
+  @Test
+  void updatesAndDeletesApplyImmediately() {
+    index.put(blog(1, "Draft", "<p>lambda cold starts</p>"));
+    index.put(blog(2, "Other", "<p>lambda pricing</p>"));
+
+    index.put(blog(1, "Draft", "<p>fargate</p>"));
+    assertEquals(List.of(2), ids(index.search("lambda", 10)));
+    assertEquals(List.of(1), ids(index.search("fargate", 10)));
+
+    index.remove(2);
+    index.remove(42);
+    assertTrue(index.search("lambda", 10).isEmpty());
+  }
+
+  @Test
+  void compactsAfterManyRemovals() {
+    for (int id = 1; id <= 300; id++) index.put(blog(id, "Post " + id, "<p>common word" + id + "</p>"));
+    for (int id = 1; id <= 250; id++) index.remove(id);
+
+    List<BlogSummaryDTO> results = index.search("common", 100);
+    assertEquals(50, results.size());
+    assertEquals(List.of(300), ids(index.search("word300", 10)));
+    assertTrue(index.search("word7", 10).isEmpty());
+  }
+
+  @Test
+  void rebuildsFromTheRepositoryPageByPage() {
+    when(blogRepository.findAll(any(Pageable.class)))
+        .thenReturn(
+            new PageImpl<>(List.of(blog(1, "One", "<p>alpha</p>")), PageRequest.of(0, 1), 2))
+        .thenReturn(
+            new PageImpl<>(List.of(blog(2, "Two", "<p>alpha beta</p>")), PageRequest.of(1, 1), 2));
+    index.put(blog(99, "Stale", "<p>alpha</p>"));
+
+    index.start();
+
+    assertTrue(index.isRunning());
+    assertEquals(List.of(1, 2), ids(index.search("alpha", 10)).stream().sorted().toList());
+    assertEquals(List.of(2), ids(index.search("beta", 10)));
+    verify(blogRepository, times(2)).findAll(any(Pageable.class));
+  }
+
+  @Test
+  void tokenizesIntoFoldedWords() {
+    assertEquals(
+        Map.of("cafe", 2, "costs", 1, "2024", 1),
+        BlogSearchIndex.tokenize("Café costs, CAFE-2024"));
+  }
+
+  private static Blog blog(int id, String title, String html) {
+    Blog blog = new Blog(id, title, html);
+    blog.setExcerpt(HtmlText.visibleText(html));
+    return blog;
+  }
+
+  private static List<Integer> ids(List<BlogSummaryDTO> results) {
+    return results.stream().map(BlogSummaryDTO::getId).toList();
+  }
+}
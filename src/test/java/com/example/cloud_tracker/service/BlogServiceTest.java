@@ -1,23 +1,32 @@
 package com.example.cloud_tracker.service;
 
+import com.example.cloud_tracker.dto.BlogPageDTO;
+import com.example.cloud_tracker.dto.BlogSummaryDTO;
 import com.example.cloud_tracker.model.Blog;
 import com.example.cloud_tracker.repository.BlogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 @SpringBootTest
@@ -27,6 +36,12 @@ class BlogServiceTest {
   @Mock
   private BlogRepository blogRepository;
 
+  @Mock
+  private BlogResponseCache blogResponseCache;
+
+  @Mock
+  private BlogSearchIndex blogSearchIndex;
+
   @InjectMocks
   private BlogService blogService;
 
@@ -44,7 +59,7 @@ class BlogServiceTest {
     blog.setHtmlContent(htmlContent);
     blog.setTitle(title);
 
-    when(blogRepository.save(blog)).thenReturn(blog);
+    when(blogRepository.save(any(Blog.class))).thenReturn(blog);
 
     ResponseEntity<String> response = blogService.saveBlog(htmlContent, title);
 
@@ -67,15 +82,122 @@ class BlogServiceTest {
 
   @Test
   void getBlogsTest() {
-    List<Blog> expectedBlogs = new ArrayList<>();
-    expectedBlogs.add(new Blog(1, "Title", "<html><body>Content</body></html>"));
-    expectedBlogs.add(new Blog(2, "Title 2", "<html><body>Content 2</body></html>"));
+    List<BlogSummaryDTO> summaries =
+        List.of(
+            new BlogSummaryDTO(2, "Title 2", Instant.EPOCH, "Content 2"),
+            new BlogSummaryDTO(1, "Title", Instant.EPOCH, "Content"));
+
+    when(blogRepository.findSummaries(any()))
+        .thenReturn(new PageImpl<>(summaries, PageRequest.of(3, 2), 42));
+
+    BlogPageDTO actualBlogs = blogService.getBlogSummaries(0, 1000);
+
+    assertEquals(new BlogPageDTO(summaries, 3, 2, 42), actualBlogs);
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(blogRepository).findSummaries(pageable.capture());
+    assertEquals(BlogService.MAX_PAGE_SIZE, pageable.getValue().getPageSize());
+    assertEquals(Sort.by(Sort.Direction.DESC, "id"), pageable.getValue().getSort());
+    verify(blogRepository, never()).findAll();
+  }
+
+  @Test
+  void getBlogsRejectsInvalidPages() {
+    assertThrows(IllegalArgumentException.class, () -> blogService.getBlogSummaries(-1, 20));
+    assertThrows(IllegalArgumentException.class, () -> blogService.getBlogSummaries(0, 0));
+  }
+
+  @Test
+  void saveBlogStoresExcerptAndCreationTime() {
+    blogService.saveBlog("<h1>Hello</h1><p>World</p>", "Title");
+
+    ArgumentCaptor<Blog> saved = ArgumentCaptor.forClass(Blog.class);
+    verify(blogRepository).save(saved.capture());
+    assertEquals("Hello World", saved.getValue().getExcerpt());
+    assertNotNull(saved.getValue().getCreatedAt());
+    verify(blogResponseCache).invalidateAll();
+  }
+
+  @Test
+  void updateAndDeleteInvalidateServedResponses() {
+    Blog blog = new Blog(1, "Title", "<p>Content</p>");
+    when(blogRepository.findById(1)).thenReturn(Optional.of(blog));
+
+    when(blogRepository.save(blog)).thenReturn(blog);
+
+    blogService.updateBlog(1, "<p>New</p>", "Title");
+    blogService.deleteBlog(1);
 
-    when(blogRepository.findAll()).thenReturn(expectedBlogs);
+    verify(blogResponseCache, times(2)).invalidateAll();
+    verify(blogSearchIndex).put(blog);
+    verify(blogSearchIndex).remove(1);
+  }
+
+  @Test
+  void updateOfAnOlderVersionIsRefused() {
+    Blog blog = new Blog(1, "Title", "<p>Content</p>");
+    blog.setVersion(2);
+    when(blogRepository.findById(1)).thenReturn(Optional.of(blog));
+
+    assertThrows(
+        ObjectOptimisticLockingFailureException.class,
+        () -> blogService.updateBlog(1, "<p>New</p>", "Title", 1L));
+    verify(blogRepository, never()).save(any());
+
+    when(blogRepository.save(blog)).thenReturn(blog);
+    blogService.updateBlog(1, "<p>New</p>", "Title", 2L);
+    verify(blogRepository).save(blog);
+  }
+
+  @Test
+  void ifMatchIsReadAsTheVersionItTags() {
+    Blog blog = new Blog(1, "Title", "<p>Content</p>");
+    blog.setVersion(5);
+
+    assertEquals(5L, BlogService.expectedVersion(BlogService.etag(blog)));
+    assertEquals(5L, BlogService.expectedVersion("\"5-gzip\""));
+    assertNull(BlogService.expectedVersion(null));
+    assertNull(BlogService.expectedVersion("*"));
+    assertThrows(IllegalArgumentException.class, () -> BlogService.expectedVersion("W/\"5\""));
+    assertThrows(IllegalArgumentException.class, () -> BlogService.expectedVersion("\"abc\""));
+  }
+
+  @Test
+  void searchIsCappedAndServedFromTheIndex() {
+    List<BlogSummaryDTO> hits = List.of(new BlogSummaryDTO(1, "Title", Instant.EPOCH, "Content"));
+    when(blogSearchIndex.search("costs", BlogService.MAX_SEARCH_RESULTS)).thenReturn(hits);
+
+    assertEquals(hits, blogService.search("costs", 1000));
+    assertThrows(IllegalArgumentException.class, () -> blogService.search("costs", 0));
+    verifyNoInteractions(blogRepository);
+  }
+
+  @Test
+  void excerptIsVisibleTextCutAtAWord() {
+    assertEquals(
+        "Tom & Jerry say \"hi\" é",
+        BlogService.excerpt(
+            "<style>p{}</style><!-- draft --><p>Tom &amp; Jerry\n say &quot;hi&quot;</p>"
+                + "<script>alert(1)</script>&#233;"));
+
+    String excerpt = BlogService.excerpt("<p>" + "word ".repeat(100) + "</p>");
+    assertTrue(excerpt.length() <= Blog.EXCERPT_LENGTH + 1);
+    assertTrue(excerpt.endsWith("word…"), excerpt);
+  }
+
+  @Test
+  void excerptDecodesHexReferencesInEitherCase() {
+    assertEquals("it's 'quoted'", BlogService.excerpt("<p>it&#x27;s &#X27;quoted&#39;</p>"));
+  }
+
+  @Test
+  void backfillStoresMissingExcerpts() {
+    Blog legacy = new Blog(1, "Title", "<p>Old <b>post</b></p>");
+    when(blogRepository.findByExcerptIsNull()).thenReturn(List.of(legacy));
 
-    List<Blog> actualBlogs = blogService.getBlogs();
+    blogService.backfillExcerpts();
 
-    assertEquals(expectedBlogs, actualBlogs);
+    assertEquals("Old post", legacy.getExcerpt());
+    verify(blogRepository).saveAll(List.of(legacy));
   }
 
   @Test
@@ -4,6 +4,11 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.example.cloud_tracker.configuration.DataSourceRoute;
+import com.example.cloud_tracker.metrics.CsvImportMetrics;
+import com.example.cloud_tracker.model.AWSService;
+import com.example.cloud_tracker.model.MonthlyCost;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -14,6 +19,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +33,9 @@ public class CSVServiceTest {
     @Mock
     private MonthlyCostService monthlyCostService;
 
+    @Mock
+    private CsvImportMetrics csvImportMetrics;
+
     @InjectMocks
     private CSVService csvService;
 
@@ -45,11 +54,57 @@ public class CSVServiceTest {
 
         csvService.processCSV(file);
 
-        verify(awsServicesService, times(1)).addNewAWSService(1, "EC2-Instances", 0.845933);
-        verify(awsServicesService, times(1)).addNewAWSService(2, "Cost Explorer", 0.19);
-        verify(awsServicesService, times(1)).addNewAWSService(3, "Tax", 0.15);
-        verify(monthlyCostService, times(1)).addNewMonthlyCost("2023-10-01", awsServicesService.getAWSServiceByID(1), 0.845933);
-        verify(monthlyCostService, times(1)).addNewMonthlyCost("2023-10-01", awsServicesService.getAWSServiceByID(3), 0.13);
+        verify(csvImportMetrics, times(1)).recordImport(any(), any(), anyLong(), eq(1L), eq(12));
+        List<AWSService> services = savedServices();
+        assertEquals(12, services.size());
+        assertEquals(new AWSService(1, "EC2-Instances", 0.845933), services.get(0));
+        assertEquals(new AWSService(2, "Cost Explorer", 0.19), services.get(1));
+        assertEquals(new AWSService(3, "Tax", 0.15), services.get(2));
+        List<MonthlyCost> monthlyCosts = savedMonthlyCosts();
+        assertEquals(12, monthlyCosts.size());
+        assertEquals(new MonthlyCost("2023-10-01", "EC2-Instances", 0.845933), monthlyCosts.get(0));
+        assertEquals(new MonthlyCost("2023-10-01", "Cost Explorer", 0.0), monthlyCosts.get(1));
+        assertEquals(new MonthlyCost("2023-10-01", "Tax", 0.13), monthlyCosts.get(2));
+        verify(awsServicesService, never()).getAWSServiceByID(anyInt());
+        verify(monthlyCostService, never()).addNewMonthlyCost(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProcessCSVSavesLargeImportsInChunks() throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        StringBuilder csvContent = new StringBuilder("Service,EC2-Instances($),S3($),Total costs($)\n")
+                .append("Service total,1.0,2.0,3.0\n");
+        int days = CSVService.SAVE_CHUNK_ROWS; // two rows a day, so two full chunks
+        for (int day = 0; day < days; day++) {
+            csvContent.append(LocalDate.of(2023, 1, 1).plusDays(day)).append(",0.5,,0.5\n");
+        }
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(csvContent.toString().getBytes()));
+
+        csvService.processCSV(file);
+
+        ArgumentCaptor<List<MonthlyCost>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(monthlyCostService, times(2)).addNewMonthlyCosts(chunks.capture());
+        assertEquals(CSVService.SAVE_CHUNK_ROWS, chunks.getAllValues().get(0).size());
+        assertEquals(CSVService.SAVE_CHUNK_ROWS, chunks.getAllValues().get(1).size());
+        verify(awsServicesService, times(1)).addNewAWSServices(any());
+    }
+
+    @Test
+    public void testProcessCSVWritesThroughTheIngestPool() throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        String csvContent = "Service,EC2-Instances($),Total costs($)\n" +
+                "Service total,1.0,1.0\n" +
+                "2023-10-01,1.0,1.0\n";
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(csvContent.getBytes()));
+        List<DataSourceRoute> routes = new ArrayList<>();
+        doAnswer(invocation -> routes.add(DataSourceRoute.current())).when(awsServicesService).addNewAWSServices(any());
+        doAnswer(invocation -> routes.add(DataSourceRoute.current())).when(monthlyCostService).addNewMonthlyCosts(any());
+
+        csvService.processCSV(file);
+
+        assertEquals(List.of(DataSourceRoute.INGEST, DataSourceRoute.INGEST), routes);
+        assertEquals(DataSourceRoute.OLTP, DataSourceRoute.current());
     }
 
     @Test
@@ -57,11 +112,17 @@ public class CSVServiceTest {
         String[] recordArray = {"2023-10-01", "0.845933", "", "0.13", "0.076882", "0.000007", "2.897000e-07", "", "0", "0", "0.0", "0", "0.0"};
         CSVRecord record = CSVFormat.DEFAULT.parse(new StringReader(String.join(",", recordArray))).iterator().next();
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        List<String> serviceNames = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) serviceNames.add("Service" + i);
+        List<MonthlyCost> monthlyCosts = new ArrayList<>();
 
-        csvService.extractMonthlyCost(record, dateFormat);
+        csvService.extractMonthlyCost(record, dateFormat, serviceNames, monthlyCosts);
 
-        verify(monthlyCostService, times(1)).addNewMonthlyCost("2023-10-01", awsServicesService.getAWSServiceByID(1), 0.845933);
-        verify(monthlyCostService, times(1)).addNewMonthlyCost("2023-10-01", awsServicesService.getAWSServiceByID(3), 0.13);
+        // The last column is the day's total.
+        assertEquals(11, monthlyCosts.size());
+        assertEquals(new MonthlyCost("2023-10-01", "Service1", 0.845933), monthlyCosts.get(0));
+        assertEquals(new MonthlyCost("2023-10-01", "Service3", 0.13), monthlyCosts.get(2));
+        verifyNoInteractions(monthlyCostService, awsServicesService);
     }
 
     @Test
@@ -93,8 +154,24 @@ public class CSVServiceTest {
 
         csvService.saveAWSServices(serviceNames, totalCosts);
 
-        verify(awsServicesService, times(1)).addNewAWSService(1, "EC2-Instances", 0.845933);
-        verify(awsServicesService, times(1)).addNewAWSService(2, "Cost Explorer", 0.19);
-        verify(awsServicesService, times(1)).addNewAWSService(3, "Tax", 0.15);
+        List<AWSService> services = savedServices();
+        assertEquals(10, services.size());
+        assertEquals(new AWSService(1, "EC2-Instances", 0.845933), services.get(0));
+        assertEquals(new AWSService(2, "Cost Explorer", 0.19), services.get(1));
+        assertEquals(new AWSService(3, "Tax", 0.15), services.get(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AWSService> savedServices() {
+        ArgumentCaptor<List<AWSService>> services = ArgumentCaptor.forClass(List.class);
+        verify(awsServicesService, times(1)).addNewAWSServices(services.capture());
+        return services.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MonthlyCost> savedMonthlyCosts() {
+        ArgumentCaptor<List<MonthlyCost>> monthlyCosts = ArgumentCaptor.forClass(List.class);
+        verify(monthlyCostService, times(1)).addNewMonthlyCosts(monthlyCosts.capture());
+        return monthlyCosts.getValue();
     }
 }
@@ -0,0 +1,128 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.dto.ServiceCostDTO;
+import com.example.cloud_tracker.service.CostAggregation.GroupBy;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CostAggregationTest {
+
+  // Tuesday 2024-01-30 to Thursday 2024-02-01: two ISO weeks, two months.
+  private final List<ServiceCostDTO> costs =
+      List.of(
+          new ServiceCostDTO("2024-01-28", "EC2", 1.0),
+          new ServiceCostDTO("2024-01-28", "S3", 2.0),
+          new ServiceCostDTO("2024-01-29", "EC2", 4.0),
+          new ServiceCostDTO("2024-01-29", "RDS", null),
+          new ServiceCostDTO("2024-02-01", "EC2", 8.0),
+          new ServiceCostDTO("2024-02-01", "S3", 16.0),
+          new ServiceCostDTO("2024-02-01", "RDS", 0.5));
+
+  @Test
+  void withNothingAskedTheRowsAreReturnedAsTheyAre() {
+    assertSame(costs, CostAggregation.aggregate(costs, null, null, null, null));
+  }
+
+  @Test
+  void sumsByDay() {
+    assertEquals(
+        List.of(
+            new ServiceCostDTO("2024-01-28", null, 3.0),
+            new ServiceCostDTO("2024-01-29", null, 4.0),
+            new ServiceCostDTO("2024-02-01", null, 24.5)),
+        CostAggregation.aggregate(costs, GroupBy.DAY, null, null, null));
+  }
+
+  @Test
+  void sumsByIsoWeekStartingMonday() {
+    assertEquals(
+        List.of(
+            new ServiceCostDTO("2024-01-22", null, 3.0),
+            new ServiceCostDTO("2024-01-29", null, 28.5)),
+        CostAggregation.aggregate(costs, GroupBy.WEEK, null, null, null));
+  }
+
+  @Test
+  void sumsByMonth() {
+    assertEquals(
+        List.of(
+            new ServiceCostDTO("2024-01-01", null, 7.0),
+            new ServiceCostDTO("2024-02-01", null, 24.5)),
+        CostAggregation.aggregate(costs, GroupBy.MONTH, null, null, null));
+  }
+
+  @Test
+  void sumsByServiceMostExpensiveFirstAndCutsToTopN() {
+    List<ServiceCostDTO> expected =
+        List.of(
+            new ServiceCostDTO("2024-01-28", "S3", 18.0),
+            new ServiceCostDTO("2024-01-28", "EC2", 13.0),
+            new ServiceCostDTO("2024-01-28", "RDS", 0.5));
+
+    assertEquals(expected, CostAggregation.aggregate(costs, GroupBy.SERVICE, null, null, null));
+    assertEquals(
+        expected.subList(0, 2), CostAggregation.aggregate(costs, GroupBy.SERVICE, 2, null, null));
+    assertEquals(expected, CostAggregation.aggregate(costs, GroupBy.SERVICE, 10, null, null));
+  }
+
+  @Test
+  void windowIsInclusiveAndAppliesBeforeGrouping() {
+    LocalDate from = LocalDate.of(2024, 1, 29);
+    LocalDate to = LocalDate.of(2024, 2, 1);
+
+    assertEquals(costs.subList(2, 7), CostAggregation.aggregate(costs, null, null, from, to));
+    assertEquals(
+        List.of(
+            new ServiceCostDTO("2024-01-29", "S3", 16.0),
+            new ServiceCostDTO("2024-01-29", "EC2", 12.0)),
+        CostAggregation.aggregate(costs, GroupBy.SERVICE, 2, from, null));
+    assertEquals(
+        List.of(new ServiceCostDTO("2024-01-28", null, 3.0)),
+        CostAggregation.aggregate(costs, GroupBy.DAY, null, null, from.minusDays(1)));
+    assertEquals(
+        List.of(), CostAggregation.aggregate(costs, GroupBy.SERVICE, null, to.plusDays(1), null));
+  }
+
+  @Test
+  void rejectsInconsistentParameters() {
+    LocalDate day = LocalDate.of(2024, 1, 29);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CostAggregation.aggregate(costs, GroupBy.SERVICE, 0, null, null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CostAggregation.aggregate(costs, GroupBy.DAY, 3, null, null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CostAggregation.aggregate(costs, null, null, day, day.minusDays(1)));
+  }
+
+  @Test
+  void rowsWithoutADateAreRejectedAsBadInput() {
+    List<ServiceCostDTO> undated =
+        List.of(
+            new ServiceCostDTO("2024-01-29", "EC2", 1.0), new ServiceCostDTO(null, "EC2", 1.0));
+
+    IllegalArgumentException ex =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CostAggregation.aggregate(undated, GroupBy.DAY, null, null, null));
+    assertEquals("Cost row without a date", ex.getMessage());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CostAggregation.aggregate(undated.subList(1, 2), GroupBy.SERVICE, null, null, null));
+  }
+
+  @Test
+  void groupByIsParsedCaseInsensitively() {
+    assertEquals(GroupBy.WEEK, GroupBy.parse("week"));
+    assertEquals(GroupBy.SERVICE, GroupBy.parse(" Service "));
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> GroupBy.parse("year"));
+    assertEquals("groupBy must be one of [day, week, month, service]", ex.getMessage());
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.cloud_tracker.service;
 
+import com.amazonaws.services.costexplorer.model.DateInterval;
 import com.example.cloud_tracker.model.IAMRole;
 import com.example.cloud_tracker.repository.IAMRoleRepository;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
@@ -74,4 +76,32 @@ public class IAMRoleServiceTest {
         verify(iamRoleRepository, times(1)).save(any(IAMRole.class));
     }
 
+    @Test
+    void costWindow_isNarrowedToTheRequestedDays() {
+        LocalDate today = LocalDate.of(2024, 7, 15);
+
+        DateInterval full = IAMRoleService.costWindow(today, null, null);
+        assertEquals("2024-01-15", full.getStart());
+        assertEquals("2024-07-15", full.getEnd());
+
+        DateInterval narrowed =
+                IAMRoleService.costWindow(today, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+        assertEquals("2024-03-01", narrowed.getStart());
+        assertEquals("2024-04-01", narrowed.getEnd());
+
+        DateInterval clamped =
+                IAMRoleService.costWindow(today, LocalDate.of(2023, 1, 1), LocalDate.of(2025, 1, 1));
+        assertEquals("2024-01-15", clamped.getStart());
+        assertEquals("2024-07-15", clamped.getEnd());
+
+        assertNull(IAMRoleService.costWindow(today, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 6, 1)));
+        assertNull(IAMRoleService.costWindow(today, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void getBlendedCost_outsideTheWindowSkipsAws() {
+        assertTrue(iamRoleService.getBlendedCost(
+                new IAMRole("arn"), LocalDate.of(2000, 1, 1), LocalDate.of(2000, 1, 31)).isEmpty());
+    }
+
 }
\ No newline at end of file
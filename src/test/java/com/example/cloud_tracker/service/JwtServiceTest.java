@@ -1,12 +1,13 @@
 package com.example.cloud_tracker.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-import com.example.cloud_tracker.model.BlackListedTokens;
 import com.example.cloud_tracker.model.User;
-import com.example.cloud_tracker.repository.BlackListedTokensRepository;
+import com.example.cloud_tracker.model.VerifiedToken;
 
 import init.UserInit;
 import io.jsonwebtoken.Claims;
@@ -40,7 +41,7 @@ public class JwtServiceTest {
     private JwtService jwtService;
 
     @Mock
-    private BlackListedTokensRepository blackListedTokensRepository;
+    private TokenRevocationService tokenRevocationService;
 
     @Mock
     private HttpServletRequest request;
@@ -58,11 +59,31 @@ public class JwtServiceTest {
         assertEquals(user.getUsername(), jwtService.extractUserName(token));
     }
 
+    @Test
+    void verifyTokenTest() {
+        UserDetails user = UserInit.createUser();
+        String token = jwtService.generateToken(user);
+        VerifiedToken verified = jwtService.verifyToken(token);
+        assertNotNull(verified);
+        assertEquals(user.getUsername(), verified.getSubject());
+        assertEquals(token, verified.getToken());
+        assert(!verified.isExpired());
+    }
+
+    @Test
+    void verifyTokenTamperedTest() {
+        UserDetails user = UserInit.createUser();
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertNull(jwtService.verifyToken(tampered));
+        assertNull(jwtService.verifyToken("not-a-jwt"));
+    }
+
     @Test
     void validateTokenTest(){
         UserDetails user = UserInit.createUser();
         String token = jwtService.generateToken(user);
-        when(blackListedTokensRepository.existsByToken(token)).thenReturn(false);
+        when(tokenRevocationService.isRevoked(TokenDigest.of(token))).thenReturn(false);
         assert(jwtService.validateToken(token, user));
     }
     
@@ -71,7 +92,7 @@ public class JwtServiceTest {
         UserDetails user = UserInit.createUser();
         UserDetails user2 = new User(1, "tst@test.com", "test", "test", null, null);
         String token = jwtService.generateToken(user);
-        when(blackListedTokensRepository.existsByToken(token)).thenReturn(false);
+        when(tokenRevocationService.isRevoked(TokenDigest.of(token))).thenReturn(false);
         assert(!jwtService.validateToken(token, user2));
     }
 
@@ -79,10 +100,21 @@ public class JwtServiceTest {
     void validateTokenTestFailRevokedToken(){
         UserDetails user = UserInit.createUser();
         String token = jwtService.generateToken(user);
-        when(blackListedTokensRepository.existsByToken(token)).thenReturn(true);
+        when(tokenRevocationService.isRevoked(TokenDigest.of(token))).thenReturn(true);
         assert(!jwtService.validateToken(token, user));
     }
 
+    @Test
+    void validateVerifiedTokenChecksTheCallersDigest(){
+        UserDetails user = UserInit.createUser();
+        String token = jwtService.generateToken(user);
+        VerifiedToken verified = jwtService.verifyToken(token);
+        when(tokenRevocationService.isRevoked("digest")).thenReturn(false);
+        assert(jwtService.validateToken(verified, "digest", user));
+        verify(tokenRevocationService).isRevoked("digest");
+        verifyNoMoreInteractions(tokenRevocationService);
+    }
+
     @Test
     void validateTokenTestExpired(){
         UserDetails user = UserInit.createUser();
@@ -150,23 +182,32 @@ public class JwtServiceTest {
 
     @Test
     public void testRevokeTokenSuccess() {
+        String token = jwtService.generateToken(UserInit.createUser());
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        jwtService.blackListToken(request);
+        verify(tokenRevocationService).revoke(
+                TokenDigest.of(token), jwtService.extractAllClaims(token).getExpiration().toInstant());
+    }
+
+    @Test
+    public void testRevokeTokenSkipsUnverifiableToken() {
         when(request.getHeader("Authorization")).thenReturn("Bearer test");
         jwtService.blackListToken(request);
-        verify(blackListedTokensRepository).save(any(BlackListedTokens.class));
+        verify(tokenRevocationService, never()).revoke(any(), any());
     }
 
     @Test
     public void testRevokeTokenFailNullHeader() {
         when(request.getHeader("Authorization")).thenReturn(null);
         jwtService.blackListToken(request);
-        verify(blackListedTokensRepository, never()).save(any());
+        verify(tokenRevocationService, never()).revoke(any(), any());
     }
 
     @Test
     public void testRevokeTokenFailInvalidHeader() {
         when(request.getHeader("Authorization")).thenReturn("tesy");
         jwtService.blackListToken(request);
-        verify(blackListedTokensRepository, never()).save(any());
+        verify(tokenRevocationService, never()).revoke(any(), any());
     }
     
 }
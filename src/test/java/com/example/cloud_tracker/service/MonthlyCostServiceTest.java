@@ -4,6 +4,7 @@ import static org.mockito.Mockito.*;
 
 import com.example.cloud_tracker.model.MonthlyCost;
 import com.example.cloud_tracker.repository.MonthlyCostRepository;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -33,4 +34,14 @@ public class MonthlyCostServiceTest {
         monthlyCostService.addNewMonthlyCost("2023-06-01", "Service1", 10.0);
         verify(monthlyCostRepository, times(1)).save(any(MonthlyCost.class));
     }
+
+    @Test
+    public void testAddNewMonthlyCosts() {
+        List<MonthlyCost> monthlyCosts =
+                List.of(new MonthlyCost("2023-06-01", "Service1", 10.0), new MonthlyCost("2023-06-01", "Service2", 2.0));
+
+        monthlyCostService.addNewMonthlyCosts(monthlyCosts);
+        verify(monthlyCostRepository, times(1)).saveAll(monthlyCosts);
+        verify(monthlyCostRepository, never()).save(any(MonthlyCost.class));
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class PasswordHashingServiceTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private PasswordHashingService service;
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void hashesOnThePoolAndRecordsLatency() {
+    service = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 1, 4, 5000);
+
+    String hash = service.encode("secret");
+
+    assertTrue(service.matches("secret", hash));
+    assertFalse(service.matches("other", hash));
+    assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+    assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    assertEquals(0.0, meterRegistry.get("password.hashing.queue.depth").gauge().value());
+  }
+
+  @Test
+  void hashesBelowTheTargetCostNeedRehash() {
+    service = new PasswordHashingService(new BCryptPasswordEncoder(6), meterRegistry, 1, 4, 5000);
+
+    assertTrue(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+    assertFalse(service.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+  }
+
+  @Test
+  void rejectsWhenSaturated() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BCryptPasswordEncoder blocking =
+        new BCryptPasswordEncoder(4) {
+          @Override
+          public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+          }
+        };
+    service = new PasswordHashingService(blocking, meterRegistry, 1, 1, 5000);
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    try {
+      callers.submit(() -> service.encode("first"));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      callers.submit(() -> service.encode("queued"));
+      while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < 1) {
+        Thread.onSpinWait();
+      }
+
+      assertThrows(PasswordHashingUnavailableException.class, () -> service.encode("rejected"));
+      assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+    } finally {
+      release.countDown();
+      callers.shutdown();
+    }
+  }
+}
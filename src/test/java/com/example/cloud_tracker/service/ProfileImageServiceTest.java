@@ -0,0 +1,133 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.model.ProfileImage;
+import com.example.cloud_tracker.repository.ProfileImageRepository;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class ProfileImageServiceTest {
+
+  @Mock private ProfileImageRepository profileImageRepository;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private ProfileImageService profileImageService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    profileImageService = new ProfileImageService(
+            profileImageRepository, jdbcTemplate, transactionManager, 1 << 20, 128);
+  }
+
+  @Test
+  void storesHashedCompressedImageWithThumbnail() throws IOException {
+    byte[] bmp = image(640, 320, "bmp");
+
+    profileImageService.store(1, "data:image/bmp;base64," + Base64.getEncoder().encodeToString(bmp));
+
+    ArgumentCaptor<ProfileImage> saved = ArgumentCaptor.forClass(ProfileImage.class);
+    verify(profileImageRepository).save(saved.capture());
+    ProfileImage stored = saved.getValue();
+    assertEquals(1, stored.getUserId());
+    assertEquals("image/bmp", stored.getContentType());
+    assertEquals(64, stored.getContentHash().length());
+    assertTrue(stored.isCompressed());
+    assertTrue(stored.getData().length < bmp.length);
+
+    BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(stored.getThumbnail()));
+    assertEquals(128, thumbnail.getWidth());
+    assertEquals(64, thumbnail.getHeight());
+
+    when(profileImageRepository.findById(1)).thenReturn(Optional.of(stored));
+    assertArrayEquals(bmp, profileImageService.getPicture(1).bytes());
+  }
+
+  @Test
+  void unchangedImageAndEchoedThumbnailAreNotRewritten() throws IOException {
+    byte[] png = image(256, 256, "png");
+    profileImageService.store(1, Base64.getEncoder().encodeToString(png));
+    ArgumentCaptor<ProfileImage> saved = ArgumentCaptor.forClass(ProfileImage.class);
+    verify(profileImageRepository).save(saved.capture());
+    when(profileImageRepository.findById(1)).thenReturn(Optional.of(saved.getValue()));
+    when(profileImageRepository.findThumbnailByUserId(1)).thenReturn(saved.getValue().getThumbnail());
+
+    profileImageService.store(1, Base64.getEncoder().encodeToString(png));
+    profileImageService.store(1, profileImageService.getThumbnailDataUrl(1));
+
+    verify(profileImageRepository, times(1)).save(any());
+  }
+
+  @Test
+  void blankImageRemovesPicture() {
+    profileImageService.store(1, null);
+
+    verify(profileImageRepository).deleteById(1);
+    verify(profileImageRepository, never()).save(any());
+  }
+
+  @Test
+  void rejectsInvalidImages() {
+    String notAnImage = Base64.getEncoder().encodeToString("hello".getBytes());
+    String tooLarge = "A".repeat(2 << 20);
+
+    assertThrows(IllegalArgumentException.class, () -> profileImageService.store(1, "not base64!"));
+    assertThrows(IllegalArgumentException.class, () -> profileImageService.store(1, notAnImage));
+    assertThrows(IllegalArgumentException.class, () -> profileImageService.store(1, tooLarge));
+    verify(profileImageRepository, never()).save(any());
+  }
+
+  @Test
+  void legacyImagesAreMovedInOneTransactionBeforeTheColumnIsDropped() throws IOException {
+    String png = Base64.getEncoder().encodeToString(image(64, 64, "png"));
+    when(jdbcTemplate.queryForList(startsWith("select id, image from users")))
+        .thenReturn(List.of(Map.of("id", 1, "image", png), Map.of("id", 2, "image", png)));
+
+    profileImageService.importLegacyImages();
+
+    verify(profileImageRepository, times(2)).save(any());
+    verify(transactionManager).commit(any());
+    verify(jdbcTemplate).execute("alter table users drop column image");
+  }
+
+  @Test
+  void legacyColumnIsKeptWhileAnyImageCannotBeMigrated() throws IOException {
+    String png = Base64.getEncoder().encodeToString(image(64, 64, "png"));
+    String unreadable = Base64.getEncoder().encodeToString("not an image".getBytes());
+    when(jdbcTemplate.queryForList(startsWith("select id, image from users")))
+        .thenReturn(List.of(Map.of("id", 1, "image", png), Map.of("id", 2, "image", unreadable)));
+
+    profileImageService.importLegacyImages();
+
+    verify(profileImageRepository, times(1)).save(any());
+    verify(jdbcTemplate, never()).execute(anyString());
+  }
+
+  private static byte[] image(int width, int height, String format) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    image.getGraphics().fillRect(0, 0, width / 2, height / 2);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.configuration.RateLimitProperties;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Key;
+import com.example.cloud_tracker.configuration.RateLimitProperties.Policy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+public class RateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private RateLimitProperties properties;
+  private RateLimiter rateLimiter;
+  private Policy policy;
+
+  @BeforeEach
+  void setUp() {
+    properties = new RateLimitProperties();
+    properties.setIdleEviction(Duration.ofSeconds(10));
+    rateLimiter = new RateLimiter(properties);
+    policy = rateLimiter.policyFor("/signin");
+  }
+
+  @Test
+  void firstMatchingPolicyApplies() {
+    assertEquals("auth", rateLimiter.policyFor("/signin").getName());
+    assertEquals("aws", rateLimiter.policyFor("/role/ec2cost").getName());
+    assertEquals("default", rateLimiter.policyFor("/me/profile").getName());
+
+    properties.setPolicies(List.of(new Policy("auth", List.of("/signin"), Key.IP, 1, 1)));
+    assertNull(rateLimiter.policyFor("/me/profile"));
+  }
+
+  @Test
+  void policyThatNeverRefillsFailsStartup() {
+    new ApplicationContextRunner()
+        .withUserConfiguration(RateLimitConfiguration.class)
+        .withPropertyValues(
+            "rate-limit.policies[0].name=frozen",
+            "rate-limit.policies[0].paths[0]=/**",
+            "rate-limit.policies[0].capacity=10",
+            "rate-limit.policies[0].refill-per-second=0")
+        .run(context -> assertNotNull(context.getStartupFailure()));
+  }
+
+  @EnableConfigurationProperties(RateLimitProperties.class)
+  static class RateLimitConfiguration {}
+
+  @Test
+  void burstUpToCapacityThenWaitForRefill() {
+    long now = 0;
+    for (int i = 0; i < policy.getCapacity(); i++) {
+      assertEquals(0, rateLimiter.tryAcquire(policy, "ip:1.2.3.4", now));
+    }
+
+    long wait = rateLimiter.tryAcquire(policy, "ip:1.2.3.4", now);
+    assertEquals(5 * SECOND, wait, SECOND / 1000);
+    assertEquals(0, rateLimiter.tryAcquire(policy, "ip:5.6.7.8", now));
+
+    assertTrue(rateLimiter.tryAcquire(policy, "ip:1.2.3.4", now + wait - SECOND) > 0);
+    assertEquals(0, rateLimiter.tryAcquire(policy, "ip:1.2.3.4", now + wait));
+  }
+
+  @Test
+  void onlyIdleFullBucketsAreEvicted() {
+    for (int i = 0; i < policy.getCapacity(); i++) rateLimiter.tryAcquire(policy, "ip:drained", 0);
+    rateLimiter.tryAcquire(policy, "ip:fresh", 0);
+
+    // Half a minute on, the fresh bucket has refilled but the drained one hasn't (0.2 tokens/s).
+    rateLimiter.evictIdle(30 * SECOND);
+    assertEquals(1, rateLimiter.size());
+
+    rateLimiter.evictIdle(60 * SECOND);
+    assertEquals(0, rateLimiter.size());
+  }
+
+  @Test
+  void concurrentCallersNeverOverdraw() throws InterruptedException {
+    Policy single = new Policy("single", List.of("/**"), Key.USER, 100, 0.000001);
+    int[] granted = new int[1];
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        int mine = 0;
+        for (int i = 0; i < 100; i++) {
+          if (rateLimiter.tryAcquire(single, "user:1", 0) == 0) mine++;
+        }
+        synchronized (granted) {
+          granted[0] += mine;
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) thread.join();
+
+    assertEquals(100, granted[0]);
+  }
+}
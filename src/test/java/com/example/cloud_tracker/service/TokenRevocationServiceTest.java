@@ -0,0 +1,156 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.cloud_tracker.model.BlackListedTokens;
+import com.example.cloud_tracker.repository.BlackListedTokensRepository;
+import init.UserInit;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class TokenRevocationServiceTest {
+
+  @Mock private BlackListedTokensRepository blackListedTokensRepository;
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private VerifiedTokenCache verifiedTokenCache;
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    verifiedTokenCache = new VerifiedTokenCache(10);
+    tokenRevocationService =
+        new TokenRevocationService(
+            blackListedTokensRepository, verifiedTokenCache, jdbcTemplate, 1 << 16);
+  }
+
+  private static Instant inOneHour() {
+    return Instant.now().plusSeconds(3600);
+  }
+
+  @Test
+  void revokedTokenIsReportedAndPersisted() {
+    String digest = TokenDigest.of("revoked");
+
+    tokenRevocationService.revoke(digest, inOneHour());
+
+    assertTrue(tokenRevocationService.isRevoked(digest));
+    assertFalse(tokenRevocationService.isRevoked(TokenDigest.of("other")));
+    verify(blackListedTokensRepository).save(any(BlackListedTokens.class));
+  }
+
+  @Test
+  void revokingAnAlreadyStoredTokenIsNotAnError() {
+    String digest = TokenDigest.of("twice");
+    when(blackListedTokensRepository.save(any(BlackListedTokens.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+    tokenRevocationService.revoke(digest, inOneHour());
+
+    assertTrue(tokenRevocationService.isRevoked(digest));
+  }
+
+  @Test
+  void notRevokedCheckNeverTouchesTheDatabase() {
+    for (int i = 0; i < 1000; i++) {
+      assertFalse(tokenRevocationService.isRevoked(TokenDigest.of("token-" + i)));
+    }
+    verifyNoInteractions(blackListedTokensRepository);
+  }
+
+  @Test
+  void revokeDropsTheTokenFromTheVerifiedTokenCache() {
+    String digest = TokenDigest.of("cached");
+    verifiedTokenCache.put(
+        digest, UserInit.createUser(), new Date(System.currentTimeMillis() + 3_600_000));
+
+    tokenRevocationService.revoke(digest, inOneHour());
+
+    assertNull(verifiedTokenCache.get(digest));
+  }
+
+  @Test
+  void tokenCachedAfterRevokeIsStillReportedRevoked() {
+    String digest = TokenDigest.of("late-put");
+
+    tokenRevocationService.revoke(digest, inOneHour());
+    // A request that verified the token before the revocation caches it afterwards.
+    verifiedTokenCache.put(
+        digest, UserInit.createUser(), new Date(System.currentTimeMillis() + 3_600_000));
+
+    assertNotNull(verifiedTokenCache.get(digest));
+    assertTrue(tokenRevocationService.isRevoked(digest));
+  }
+
+  @Test
+  void syncPicksUpRevocationsFromOtherInstancesAndKeepsLocalOnes() {
+    String remote = TokenDigest.of("remote");
+    String local = TokenDigest.of("local");
+    tokenRevocationService.revoke(local, inOneHour());
+    verifiedTokenCache.put(
+        remote, UserInit.createUser(), new Date(System.currentTimeMillis() + 3_600_000));
+    when(blackListedTokensRepository.findByExpiresAtAfter(any()))
+        .thenReturn(List.of(new BlackListedTokens(remote, inOneHour())));
+
+    tokenRevocationService.sync();
+
+    assertTrue(tokenRevocationService.isRevoked(remote));
+    assertTrue(tokenRevocationService.isRevoked(local));
+    assertNull(verifiedTokenCache.get(remote));
+    verify(blackListedTokensRepository).deleteExpired(any());
+  }
+
+  @Test
+  void syncForgetsExpiredRevocations() {
+    String digest = TokenDigest.of("expired");
+    tokenRevocationService.revoke(digest, Instant.now().minusSeconds(1));
+
+    tokenRevocationService.sync();
+
+    assertFalse(tokenRevocationService.isRevoked(digest));
+  }
+
+  @Test
+  void legacyBlacklistImportSkipsDigestsThatAreAlreadyStored() {
+    String stored = legacyToken("stored");
+    String fresh = legacyToken("fresh");
+    when(jdbcTemplate.queryForList("select token from black_listed_tokens", String.class))
+        .thenReturn(List.of(stored, fresh, stored));
+    // Left behind by a run that stopped before the drop, or by another instance.
+    when(blackListedTokensRepository.save(
+            argThat(row -> row.getTokenDigest().equals(TokenDigest.of(stored)))))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+    tokenRevocationService.importLegacyBlacklist();
+
+    verify(blackListedTokensRepository, times(2)).save(any(BlackListedTokens.class));
+    verify(jdbcTemplate).execute("drop table if exists black_listed_tokens");
+  }
+
+  private static String legacyToken(String subject) {
+    return JWT.create()
+        .withSubject(subject)
+        .withExpiresAt(Date.from(inOneHour()))
+        .sign(Algorithm.HMAC256("legacy"));
+  }
+
+  @Test
+  void bloomFilterHasNoFalseNegatives() {
+    TokenRevocationService.BloomFilter bloom = new TokenRevocationService.BloomFilter(1 << 12);
+    for (int i = 0; i < 500; i++) bloom.add(TokenDigest.of("token-" + i));
+    for (int i = 0; i < 500; i++) assertTrue(bloom.mightContain(TokenDigest.of("token-" + i)));
+  }
+}
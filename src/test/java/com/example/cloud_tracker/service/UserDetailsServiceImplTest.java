@@ -0,0 +1,78 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.cloud_tracker.model.UserPrincipal;
+import com.example.cloud_tracker.repository.UserRepository;
+import init.UserInit;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class UserDetailsServiceImplTest {
+
+  @Mock private UserRepository userRepository;
+
+  private VerifiedTokenCache verifiedTokenCache;
+  private UserPrincipalCache userPrincipalCache;
+  private UserDetailsServiceImpl userDetailsService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    verifiedTokenCache = new VerifiedTokenCache(10);
+    userPrincipalCache = new UserPrincipalCache(300, 10, verifiedTokenCache);
+    userDetailsService = new UserDetailsServiceImpl();
+    ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+    ReflectionTestUtils.setField(userDetailsService, "userPrincipalCache", userPrincipalCache);
+  }
+
+  @Test
+  void loadsPrincipalOnceWhileCached() {
+    UserPrincipal principal = new UserPrincipal(1, "test@test.com", "hash");
+    when(userRepository.findPrincipalByEmail("test@test.com")).thenReturn(principal);
+
+    assertEquals(principal, userDetailsService.loadUserByUsername("test@test.com"));
+    assertEquals(principal, userDetailsService.loadUserByUsername("test@test.com"));
+
+    verify(userRepository, times(1)).findPrincipalByEmail("test@test.com");
+    verify(userRepository, never()).findByEmail(any());
+  }
+
+  @Test
+  void invalidatedPrincipalIsReloaded() {
+    when(userRepository.findPrincipalByEmail("test@test.com"))
+        .thenReturn(new UserPrincipal(1, "test@test.com", "old"))
+        .thenReturn(new UserPrincipal(1, "test@test.com", "new"));
+
+    userDetailsService.loadUserByUsername("test@test.com");
+    userPrincipalCache.invalidate("test@test.com");
+
+    assertEquals("new", userDetailsService.loadUserByUsername("test@test.com").getPassword());
+  }
+
+  @Test
+  void invalidateAlsoDropsTheUsersVerifiedTokens() {
+    verifiedTokenCache.put(
+        "digest", UserInit.createUser(), new Date(System.currentTimeMillis() + 60_000));
+
+    userPrincipalCache.invalidate(UserInit.createUser().getEmail());
+
+    assertNull(verifiedTokenCache.get("digest"));
+  }
+
+  @Test
+  void unknownUserIsRejected() {
+    when(userRepository.findPrincipalByEmail("missing@test.com")).thenReturn(null);
+
+    assertThrows(
+        UsernameNotFoundException.class,
+        () -> userDetailsService.loadUserByUsername("missing@test.com"));
+  }
+}
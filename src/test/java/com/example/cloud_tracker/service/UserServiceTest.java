@@ -6,13 +6,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import com.example.cloud_tracker.dto.PasswordUpdateDTO;
 import com.example.cloud_tracker.dto.UserDTO;
@@ -33,11 +33,20 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private ProfileImageService profileImageService;
+
+    @Spy
+    private CurrentUserContext currentUserContext = new CurrentUserContext();
+
     @InjectMocks
     private UserService userService;
 
@@ -102,13 +111,34 @@ public class UserServiceTest {
         user.setEmail(userDTO.getEmail());
         user.setPassword("encryptedPassword");
         when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(user);
-        when(bCryptPasswordEncoder.matches(userDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHashingService.matches(userDTO.getPassword(), user.getPassword())).thenReturn(true);
 
         JwtResponse jwtResponse = userService.login(userDTO);
 
         assertNotNull(jwtResponse);
         verify(jwtService, times(1)).generateToken(user);
         verify(jwtService, times(1)).generateRefreshToken(user);
+        verify(userRepository, never()).save(user);
+    }
+
+    @Test
+    public void testLogin_RehashesWeakerHash() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("test@example.com");
+        userDTO.setPassword("password");
+        User user = new User();
+        user.setEmail(userDTO.getEmail());
+        user.setPassword("weakHash");
+        when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(user);
+        when(passwordHashingService.matches("password", "weakHash")).thenReturn(true);
+        when(passwordHashingService.needsRehash("weakHash")).thenReturn(true);
+        when(passwordHashingService.encode("password")).thenReturn("strongHash");
+
+        userService.login(userDTO);
+
+        assertEquals("strongHash", user.getPassword());
+        verify(userRepository, times(1)).save(user);
+        verify(userPrincipalCache, times(1)).invalidate("test@example.com");
     }
 
     @Test
@@ -120,7 +150,7 @@ public class UserServiceTest {
         user.setEmail(userDTO.getEmail());
         user.setPassword("encryptedPassword");
         when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(user);
-        when(bCryptPasswordEncoder.matches(userDTO.getPassword(), user.getPassword())).thenReturn(false);
+        when(passwordHashingService.matches(userDTO.getPassword(), user.getPassword())).thenReturn(false);
 
         assertThrows(IllegalArgumentException.class, () -> userService.login(userDTO));
     }
@@ -134,7 +164,7 @@ public class UserServiceTest {
         user.setEmail(userDTO.getEmail());
         user.setPassword("encryptedPassword");
         when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(null);
-        when(bCryptPasswordEncoder.matches(userDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHashingService.matches(userDTO.getPassword(), user.getPassword())).thenReturn(true);
 
         verify(jwtService, times(0)).generateToken(user);
         verify(jwtService, times(0)).generateRefreshToken(user);
@@ -168,13 +198,14 @@ public class UserServiceTest {
         String email = "test@example.com";
         String image = "profile_image.jpg";
         User user = new User();
+        user.setId(7);
         user.setEmail(email);
         when(userRepository.findByEmail(email)).thenReturn(user);
 
         userService.saveProfileImage(email, image);
 
-        verify(userRepository, times(1)).save(user);
-        assertEquals(image, user.getImage());
+        verify(profileImageService, times(1)).store(7, image);
+        verify(userRepository, never()).save(user);
     }
 
     @Test
@@ -201,6 +232,28 @@ public class UserServiceTest {
         assertEquals(expectedUser, currentUser);
     }
 
+    @Test
+    public void testGetCurrentUserLoadsOncePerRequest() {
+        User expectedUser = UserInit.createUser();
+        currentUserContext.setPrincipal(expectedUser);
+        when(userRepository.findByEmail(expectedUser.getEmail())).thenReturn(expectedUser);
+
+        userService.getUserProfileInfo();
+        userService.getCurrentUserName();
+
+        verify(userRepository, times(1)).findByEmail(expectedUser.getEmail());
+    }
+
+    @Test
+    public void testValidateUserTokenUsesRequestPrincipal() {
+        User user = UserInit.createUser();
+        currentUserContext.setPrincipal(user);
+        when(jwtService.validateToken("token", user)).thenReturn(true);
+
+        assertTrue(userService.validateUserToken("token"));
+        verify(userRepository, never()).findByEmail(any());
+    }
+
     @Test
     void testGetCurrentUserName() {
         // Mocking getCurrentUser() method
@@ -223,7 +276,8 @@ public class UserServiceTest {
         User currentUser = new User(
                 new UserDTO("test@example.com", "password", "name")
         );
-        currentUser.setImage("img");
+        currentUser.setId(7);
+        when(profileImageService.getThumbnailDataUrl(7)).thenReturn("data:image/png;base64,AA==");
 
         // Create a spy of UserService to partially mock it, allowing us to mock specific methods while keeping the rest intact
         UserService userServiceSpy = Mockito.spy(userService);
@@ -231,7 +285,7 @@ public class UserServiceTest {
 
         // Testing getCurrentUserName() method
         String img = userServiceSpy.getCurrentUserProfilePicture();
-        assertEquals("img", img);
+        assertEquals("data:image/png;base64,AA==", img);
     }
 
     @Test
@@ -263,6 +317,8 @@ public class UserServiceTest {
         User actualUser = new User(1,userProfileDTO.getEmail(),user.getPassword(),userProfileDTO.getName(), userProfileDTO.getImage(),null);
         User user2 = userServiceSpy.editProfile(userProfileDTO);
         assertEquals(actualUser, user2);
+        verify(profileImageService, times(1)).store(1, "image.jpg");
+        verify(userPrincipalCache, times(1)).invalidate("test@test.com");
     }
 
     @Test
@@ -305,13 +361,14 @@ public class UserServiceTest {
         UserService userServiceSpy = Mockito.spy(userService);
         Mockito.doReturn(user).when(userServiceSpy).getCurrentUser();
         
-        when(bCryptPasswordEncoder.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(true);
-        when(bCryptPasswordEncoder.encode(passwordUpdateDTO.getNewPassword())).thenReturn(passwordUpdateDTO.getNewPassword());
+        when(passwordHashingService.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHashingService.encode(passwordUpdateDTO.getNewPassword())).thenReturn(passwordUpdateDTO.getNewPassword());
         
         User user2 = userServiceSpy.editPassword(passwordUpdateDTO);
         User actualUser = user;
         user.setPassword(passwordUpdateDTO.getNewPassword());
         assertEquals(actualUser, user2);
+        verify(userPrincipalCache, times(1)).invalidate(user.getEmail());
     }
     
     @Test
@@ -325,7 +382,7 @@ public class UserServiceTest {
         UserService userServiceSpy = Mockito.spy(userService);
         Mockito.doReturn(user).when(userServiceSpy).getCurrentUser();
         
-        when(bCryptPasswordEncoder.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(false);
+        when(passwordHashingService.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> userServiceSpy.editPassword(passwordUpdateDTO));
         assertEquals("Invalid current password", exception.getMessage());
@@ -342,7 +399,7 @@ public class UserServiceTest {
         UserService userServiceSpy = Mockito.spy(userService);
         Mockito.doReturn(user).when(userServiceSpy).getCurrentUser();
         
-        when(bCryptPasswordEncoder.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHashingService.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> userServiceSpy.editPassword(passwordUpdateDTO));
         assertEquals("Passwords don't match", exception.getMessage());
@@ -0,0 +1,72 @@
+package com.example.cloud_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.cloud_tracker.model.User;
+import init.UserInit;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+public class VerifiedTokenCacheTest {
+
+  private static Date inOneHour() {
+    return new Date(System.currentTimeMillis() + 3_600_000);
+  }
+
+  @Test
+  void getReturnsCachedPrincipalUntilInvalidated() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(10);
+    User user = UserInit.createUser();
+    cache.put("digest", user, inOneHour());
+
+    assertSame(user, cache.get("digest"));
+
+    cache.invalidate("digest");
+    assertNull(cache.get("digest"));
+  }
+
+  @Test
+  void expiredTokensAreNotServed() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(10);
+    cache.put("digest", UserInit.createUser(), new Date(System.currentTimeMillis() - 1));
+
+    assertNull(cache.get("digest"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void cacheStaysWithinItsBound() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(2);
+    cache.put("a", UserInit.createUser(), inOneHour());
+    cache.put("b", UserInit.createUser(), inOneHour());
+    cache.put("c", UserInit.createUser(), inOneHour());
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("c"));
+  }
+
+  @Test
+  void expiredEntriesMakeRoomForNewOnes() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(1);
+    cache.put("old", UserInit.createUser(), new Date(System.currentTimeMillis() - 1));
+    cache.put("new", UserInit.createUser(), inOneHour());
+
+    assertNotNull(cache.get("new"));
+  }
+
+  @Test
+  void invalidateUserDropsAllTokensOfThatUser() {
+    VerifiedTokenCache cache = new VerifiedTokenCache(10);
+    User user = UserInit.createUser();
+    User other = new User(2, "other@test.com", "test", "other", null, null);
+    cache.put("a", user, inOneHour());
+    cache.put("b", user, inOneHour());
+    cache.put("c", other, inOneHour());
+
+    cache.invalidateUser(user.getUsername());
+
+    assertNull(cache.get("a"));
+    assertNull(cache.get("b"));
+    assertSame(other, cache.get("c"));
+  }
+}
@@ -0,0 +1,227 @@
+package com.example.cloud_tracker.smoke;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Drives a separately built executable through one user's journey over HTTP, to catch what only
+ * breaks once reflection and resources are limited to what the native image was told about.
+ *
+ * <p>Only runs when {@code smoke.command} names the executable, e.g. {@code
+ * -Dsmoke.command=target/cloud-tracker} after {@code mvn -Pnative native:compile}, or {@code
+ * "java -jar target/cloud-tracker-0.0.1-SNAPSHOT.jar"} for the JVM build to compare against. The
+ * application gets free ports and an in-memory H2 database; time to the first answered request and
+ * resident memory are printed at the end.
+ */
+@EnabledIfSystemProperty(named = "smoke.command", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(OrderAnnotation.class)
+public class NativeSmokeTest {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+  private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+  private static final String MOCK_ARN = "arn:aws:iam::123456789012:role/MockRole";
+  private static final String CSV =
+      "Service,EC2-Instances($),S3($),Total costs($)\n"
+          + "Service total,0.845933,0.19,1.035933\n"
+          + "2023-10-01,0.845933,0.19,1.035933\n";
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final String email = "smoke-" + System.currentTimeMillis() + "@example.com";
+  private Process process;
+  private String baseUrl;
+  private String managementUrl;
+  private long startupMillis;
+  private String token;
+
+  @BeforeAll
+  void start() throws Exception {
+    int port = freePort();
+    int managementPort = freePort();
+    baseUrl = "http://localhost:" + port;
+    managementUrl = "http://localhost:" + managementPort;
+
+    List<String> command =
+        new ArrayList<>(Arrays.asList(System.getProperty("smoke.command").trim().split("\\s+")));
+    command.addAll(
+        List.of(
+            "--server.port=" + port,
+            "--management.server.port=" + managementPort,
+            "--spring.datasource.url=jdbc:h2:mem:smoke",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop"));
+    File log = new File("target/smoke.log");
+    long started = System.nanoTime();
+    process =
+        new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+
+    long deadline = started + STARTUP_TIMEOUT.toNanos();
+    while (!answers(baseUrl + "/blogs")) {
+      if (!process.isAlive()) fail("Exited with " + process.exitValue() + ", see " + log);
+      if (System.nanoTime() > deadline) fail("Not up after " + STARTUP_TIMEOUT + ", see " + log);
+      Thread.sleep(20);
+    }
+    startupMillis = (System.nanoTime() - started) / 1_000_000;
+  }
+
+  @AfterAll
+  void stop() throws Exception {
+    if (process == null) return;
+    System.out.printf(
+        "smoke: %s first request after %d ms, %s%n",
+        System.getProperty("smoke.command"), startupMillis, residentMemory());
+    process.destroy();
+    process.waitFor();
+  }
+
+  @Test
+  @Order(1)
+  void signUpAndSignIn() throws Exception {
+    String credentials = "{\"email\":\"" + email + "\",\"password\":\"smoke-password\"";
+    assertEquals(201, send(post("/signup", credentials + ",\"name\":\"Smoke\"}")).statusCode());
+
+    HttpResponse<String> signin = send(post("/signin", credentials + "}"));
+    assertEquals(200, signin.statusCode());
+    Matcher matcher = TOKEN.matcher(signin.body());
+    assertTrue(matcher.find(), signin.body());
+    token = matcher.group(1);
+
+    HttpResponse<String> profile = send(authorized("/me/profile").GET());
+    assertEquals(200, profile.statusCode());
+    assertTrue(profile.body().contains(email), profile.body());
+  }
+
+  @Test
+  @Order(2)
+  void rolesAndCosts() throws Exception {
+    HttpRequest.Builder addRole =
+        authorized("/role?arn=" + MOCK_ARN).POST(HttpRequest.BodyPublishers.noBody());
+    assertEquals(201, send(addRole).statusCode());
+
+    HttpResponse<String> roles = send(authorized("/role/all").GET());
+    assertEquals(200, roles.statusCode());
+    assertTrue(roles.body().contains(MOCK_ARN), roles.body());
+
+    HttpResponse<String> costs = send(authorized("/role/cost?arn=" + MOCK_ARN).GET());
+    assertEquals(200, costs.statusCode());
+    assertTrue(costs.body().startsWith("["), costs.body());
+  }
+
+  @Test
+  @Order(3)
+  void csvUpload() throws Exception {
+    String boundary = "smoke" + System.nanoTime();
+    String body =
+        "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"costs.csv\"\r\n"
+            + "Content-Type: text/csv\r\n\r\n"
+            + CSV + "\r\n"
+            + "--" + boundary + "--\r\n";
+    HttpRequest.Builder upload =
+        authorized("/cost-info/upload")
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+    assertEquals(200, send(upload).statusCode());
+
+    HttpResponse<String> services = send(authorized("/cost-info/services").GET());
+    assertEquals(200, services.statusCode());
+    assertTrue(services.body().contains("S3"), services.body());
+  }
+
+  @Test
+  @Order(4)
+  void blogs() throws Exception {
+    String blog = "{\"title\":\"Smoke test\",\"htmlContent\":\"<p>Native</p>\"}";
+    assertEquals(200, send(post("/blogs/blog", blog)).statusCode());
+
+    HttpResponse<String> blogs = send(HttpRequest.newBuilder(URI.create(baseUrl + "/blogs")));
+    assertEquals(200, blogs.statusCode());
+    assertTrue(blogs.body().contains("Smoke test"), blogs.body());
+  }
+
+  @Test
+  @Order(5)
+  void logoutRevokesTheToken() throws Exception {
+    assertEquals(
+        200, send(authorized("/logout").POST(HttpRequest.BodyPublishers.noBody())).statusCode());
+    assertEquals(401, send(authorized("/me/profile").GET()).statusCode());
+  }
+
+  @Test
+  @Order(6)
+  void health() throws Exception {
+    HttpResponse<String> health =
+        send(HttpRequest.newBuilder(URI.create(managementUrl + "/actuator/health")));
+    assertEquals(200, health.statusCode());
+    assertTrue(health.body().contains("\"UP\""), health.body());
+  }
+
+  private HttpRequest.Builder post(String path, String json) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json));
+  }
+
+  private HttpRequest.Builder authorized(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Authorization", "Bearer " + token);
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder request)
+      throws IOException, InterruptedException {
+    return client.send(
+        request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private boolean answers(String url) throws InterruptedException {
+    try {
+      return send(HttpRequest.newBuilder(URI.create(url))).statusCode() == 200;
+    } catch (IOException notListeningYet) {
+      return false;
+    }
+  }
+
+  private String residentMemory() throws IOException {
+    Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+    if (!Files.exists(status)) return "RSS unavailable";
+    return Files.readAllLines(status).stream()
+        .filter(line -> line.startsWith("VmRSS:") || line.startsWith("VmHWM:"))
+        .map(line -> line.replaceAll("\\s+", " "))
+        .reduce((a, b) -> a + ", " + b)
+        .orElse("RSS unavailable");
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}